@@ -0,0 +1,73 @@
+package com.tamirian.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of {@code benchmarks.jar}: the JMH command line with the allocation
+ * profiler ({@code -prof gc}) always on and JSON results written to
+ * {@code benchmarks/results/<commit>-<timestamp>.json}, so two runs can be put side by
+ * side with {@link CompareResults}. {@code -rf}/{@code -rff} override the result file;
+ * listing and help options go straight to JMH.
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ResourceServiceBenchmark -p sizeKb=256
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private static final Path RESULTS = Path.of("benchmarks", "results");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cli);
+        boolean gcProfiled = cli.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cli.getResultFormat().hasValue() && !cli.getResult().hasValue()) {
+            Files.createDirectories(RESULTS);
+            options.resultFormat(ResultFormatType.JSON);
+            options.result(RESULTS.resolve(commit() + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json").toString());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (InputStream out = git.getInputStream()) {
+                String sha = new String(out.readAllBytes(), StandardCharsets.UTF_8).trim();
+                return git.waitFor() == 0 && !sha.isEmpty() ? sha : "unknown";
+            }
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
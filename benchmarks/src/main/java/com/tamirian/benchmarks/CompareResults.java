@@ -0,0 +1,81 @@
+package com.tamirian.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Puts two JSON result files from {@link BenchmarkRunner} side by side: score and
+ * allocated bytes per operation of every benchmark and parameter combination present
+ * in both, with the relative change of each. Whether a higher score is better depends
+ * on the benchmark mode, which is printed with the unit.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tamirian.benchmarks.CompareResults \
+ *     benchmarks/results/&lt;before&gt;.json benchmarks/results/&lt;after&gt;.json
+ * </pre>
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private record Result(String unit, double score, double error, double allocated) {}
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <before.json> <after.json>");
+            System.exit(2);
+        }
+        Map<String, Result> before = read(Path.of(args[0]));
+        Map<String, Result> after = read(Path.of(args[1]));
+
+        System.out.printf("%-90s %22s %22s %8s %12s %12s %8s%n",
+                "benchmark", "before", "after", "change", "B/op before", "B/op after", "change");
+        before.forEach((name, old) -> {
+            Result now = after.get(name);
+            if (now == null) return;
+            System.out.printf("%-90s %22s %22s %8s %12.0f %12.0f %8s%n", name + " (" + now.unit() + ")",
+                    format(old), format(now), change(old.score(), now.score()),
+                    old.allocated(), now.allocated(), change(old.allocated(), now.allocated()));
+        });
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            JsonNode primary = run.path("primaryMetric");
+            results.put(name(run), new Result(
+                    run.path("mode").asText() + ", " + primary.path("scoreUnit").asText(),
+                    primary.path("score").asDouble(),
+                    primary.path("scoreError").asDouble(),
+                    run.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN)));
+        }
+        return results;
+    }
+
+    private static String name(JsonNode run) {
+        String benchmark = run.path("benchmark").asText();
+        Map<String, String> params = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonNode> param : run.path("params").properties()) {
+            params.put(param.getKey(), param.getValue().asText());
+        }
+        String shortName = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        return params.isEmpty() ? shortName : shortName + params;
+    }
+
+    private static String format(Result result) {
+        return String.format("%.3f +- %.3f", result.score(), Double.isNaN(result.error()) ? 0 : result.error());
+    }
+
+    private static String change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) return "-";
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,179 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.commons.loadbalancer.InstanceLoad;
+import com.tamirian.commons.loadbalancer.PowerOfTwoChoices;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Discrete-event simulation of a client spreading Poisson traffic over song-service
+ * replicas, comparing round robin with {@link PowerOfTwoChoices}. Each replica serves a
+ * few requests at a time with exponential service times and queues the rest, at 50%
+ * of total capacity. Two faults are modelled: one replica that is persistently 2x
+ * slower (much slower and round robin overloads it outright, so its queue never
+ * drains), and one that stalls for 400 ms every 4 s as in a GC pause. The balancer
+ * runs unmodified on the simulated clock.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tamirian.benchmarks.LoadBalancerSimulation
+ * </pre>
+ */
+public final class LoadBalancerSimulation {
+
+    private static final long MS = 1_000_000L;
+    private static final int REPLICAS = 5;
+    private static final int WORKERS = 4;
+    private static final double MEAN_SERVICE_MS = 10;
+    private static final double UTILISATION = 0.5;
+    private static final int REQUESTS = 500_000;
+
+    private interface Balancer {
+        int choose(long now);
+
+        default void started(int replica, long now) {
+        }
+
+        default void completed(int replica, long now, long latency) {
+        }
+    }
+
+    private record Event(long time, int kind, int replica, long arrival) {
+        static final int ARRIVAL = 0;
+        static final int DONE = 1;
+    }
+
+    private static final class Replica {
+        final double slowdown;
+        final long pauseEvery;
+        final long pauseFor;
+        final ArrayDeque<Long> queue = new ArrayDeque<>();
+        int busy;
+
+        Replica(double slowdown, long pauseEvery, long pauseFor) {
+            this.slowdown = slowdown;
+            this.pauseEvery = pauseEvery;
+            this.pauseFor = pauseFor;
+        }
+
+        /** Pushes a completion time past any stall the replica is in at that moment. */
+        long finish(long start, long service) {
+            long end = start + service;
+            if (pauseEvery == 0) return end;
+            long phase = end % pauseEvery;
+            return phase < pauseFor ? end + (pauseFor - phase) : end;
+        }
+    }
+
+    public static void main(String[] args) {
+        run("one replica 2x slower", () -> replicas(2, 0, 0));
+        run("one replica pausing 400ms every 4s", () -> replicas(1, 4000 * MS, 400 * MS));
+    }
+
+    private static Replica[] replicas(double slowdown, long pauseEvery, long pauseFor) {
+        Replica[] replicas = new Replica[REPLICAS];
+        replicas[0] = new Replica(slowdown, pauseEvery, pauseFor);
+        for (int i = 1; i < REPLICAS; i++) {
+            replicas[i] = new Replica(1, 0, 0);
+        }
+        return replicas;
+    }
+
+    private static void run(String scenario, Supplier<Replica[]> replicas) {
+        System.out.println(scenario);
+        int[] next = {0};
+        report("  round robin", simulate(replicas.get(), now -> next[0]++ % REPLICAS));
+
+        long[] clock = {0};
+        PowerOfTwoChoices choices = new PowerOfTwoChoices(10_000 * MS, () -> clock[0]);
+        List<Integer> ids = IntStream.range(0, REPLICAS).boxed().toList();
+        InstanceLoad[] loads = new InstanceLoad[REPLICAS];
+        for (int i = 0; i < REPLICAS; i++) {
+            loads[i] = choices.load(Integer.toString(i));
+        }
+        report("  p2c peak-ewma", simulate(replicas.get(), new Balancer() {
+            @Override
+            public int choose(long now) {
+                clock[0] = now;
+                return choices.choose(ids, Object::toString);
+            }
+
+            @Override
+            public void started(int replica, long now) {
+                loads[replica].start();
+            }
+
+            @Override
+            public void completed(int replica, long now, long latency) {
+                clock[0] = now;
+                loads[replica].complete(now, latency);
+            }
+        }));
+    }
+
+    private static long[] simulate(Replica[] replicas, Balancer balancer) {
+        Random random = new Random(42);
+        double capacityPerMs = (REPLICAS - 1) * WORKERS / MEAN_SERVICE_MS
+                + WORKERS / (MEAN_SERVICE_MS * replicas[0].slowdown);
+        double meanGapMs = 1 / (capacityPerMs * UTILISATION);
+
+        PriorityQueue<Event> events = new PriorityQueue<>((a, b) -> Long.compare(a.time(), b.time()));
+        events.add(new Event(0, Event.ARRIVAL, -1, 0));
+        long[] latencies = new long[REQUESTS];
+        int arrived = 0;
+        int done = 0;
+
+        while (done < REQUESTS) {
+            Event event = events.poll();
+            long now = event.time();
+            if (event.kind() == Event.ARRIVAL) {
+                int replica = balancer.choose(now);
+                balancer.started(replica, now);
+                Replica target = replicas[replica];
+                if (target.busy < WORKERS) {
+                    target.busy++;
+                    events.add(new Event(target.finish(now, service(random, target)), Event.DONE, replica, now));
+                } else {
+                    target.queue.add(now);
+                }
+                if (++arrived < REQUESTS) {
+                    events.add(new Event(now + exponential(random, meanGapMs), Event.ARRIVAL, -1, 0));
+                }
+            } else {
+                Replica target = replicas[event.replica()];
+                long latency = now - event.arrival();
+                latencies[done++] = latency;
+                balancer.completed(event.replica(), now, latency);
+                Long queued = target.queue.poll();
+                if (queued == null) {
+                    target.busy--;
+                } else {
+                    events.add(new Event(target.finish(now, service(random, target)), Event.DONE, event.replica(), queued));
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long service(Random random, Replica replica) {
+        return exponential(random, MEAN_SERVICE_MS * replica.slowdown);
+    }
+
+    private static long exponential(Random random, double meanMs) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMs * MS);
+    }
+
+    private static void report(String label, long[] sorted) {
+        System.out.printf("%-18s p50=%7.1f ms  p90=%7.1f ms  p99=%7.1f ms  p99.9=%7.1f ms%n", label,
+                percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / (double) MS;
+    }
+}
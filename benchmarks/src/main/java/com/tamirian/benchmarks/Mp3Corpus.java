@@ -0,0 +1,176 @@
+package com.tamirian.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates synthetic MPEG-1 Layer III files (128 kbps, 44.1 kHz, silent frames)
+ * with the tag layouts found in real libraries. The audio payload is zeroed,
+ * which is enough for both the header-only extractor and Tika's frame walker.
+ * Every layout in every {@link #SIZES_KB} size is checked in under
+ * {@code benchmarks/corpus} so runs on different commits read the same bytes;
+ * benchmarks look it up relative to the repository root, or under
+ * {@code -Dbenchmarks.corpus=<dir>}. To regenerate it:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tamirian.benchmarks.Mp3Corpus benchmarks/corpus
+ * </pre>
+ */
+public final class Mp3Corpus {
+
+    public enum Layout {
+        ID3V23_CBR,
+        ID3V24_VBR,
+        ID3V23_ARTWORK,
+        ID3V1_ONLY,
+        UNTAGGED
+    }
+
+    private static final int FRAME_LENGTH = 417;
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x00};
+    private static final int ARTWORK_SIZE = 256 * 1024;
+
+    public static final int[] SIZES_KB = {16, 256, 2048};
+
+    private Mp3Corpus() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : directory();
+        for (Layout layout : Layout.values()) {
+            for (int sizeKb : SIZES_KB) {
+                System.out.println(write(directory, layout, sizeKb));
+            }
+        }
+    }
+
+    public static Path file(Layout layout, int sizeKb) {
+        Path file = directory().resolve(fileName(layout, sizeKb));
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Corpus file " + file.toAbsolutePath() + " is missing; run benchmarks "
+                    + "from the repository root or regenerate the corpus with Mp3Corpus");
+        }
+        return file;
+    }
+
+    public static Path write(Path directory, Layout layout, int sizeKb) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(fileName(layout, sizeKb));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(bytes(layout, sizeKb));
+        }
+        return file;
+    }
+
+    public static byte[] bytes(Layout layout, int sizeKb) throws IOException {
+        int frames = Math.max(2, sizeKb * 1024 / FRAME_LENGTH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(frames * FRAME_LENGTH + ARTWORK_SIZE + 1024);
+
+        switch (layout) {
+            case ID3V23_CBR -> out.write(id3v2(3, false));
+            case ID3V24_VBR -> out.write(id3v2(4, false));
+            case ID3V23_ARTWORK -> out.write(id3v2(3, true));
+            default -> {
+            }
+        }
+
+        byte[] frame = new byte[FRAME_LENGTH];
+        System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+        if (layout == Layout.ID3V24_VBR) {
+            byte[] first = frame.clone();
+            writeAscii(first, 36, "Xing");
+            writeInt(first, 40, 0x01);
+            writeInt(first, 44, frames - 1);
+            out.write(first);
+            frames--;
+        }
+        for (int i = 0; i < frames; i++) {
+            out.write(frame);
+        }
+
+        if (layout == Layout.ID3V1_ONLY || layout == Layout.ID3V23_CBR) {
+            out.write(id3v1());
+        }
+        return out.toByteArray();
+    }
+
+    private static Path directory() {
+        return Path.of(System.getProperty("benchmarks.corpus", "benchmarks/corpus"));
+    }
+
+    private static String fileName(Layout layout, int sizeKb) {
+        return layout.name().toLowerCase() + "-" + sizeKb + "k.mp3";
+    }
+
+    private static byte[] id3v2(int major, boolean artwork) throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        textFrame(frames, major, "TIT2", "Benchmark Title");
+        textFrame(frames, major, "TPE1", "Benchmark Artist");
+        textFrame(frames, major, "TALB", "Benchmark Album");
+        textFrame(frames, major, major == 4 ? "TDRC" : "TYER", major == 4 ? "2004-05-06" : "2003");
+        if (artwork) {
+            byte[] picture = new byte[ARTWORK_SIZE];
+            frame(frames, major, "APIC", picture);
+        }
+        frames.write(new byte[512]);
+
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.write(new byte[]{'I', 'D', '3', (byte) major, 0, 0});
+        tag.write(synchsafe(frames.size()));
+        frames.writeTo(tag);
+        return tag.toByteArray();
+    }
+
+    private static void textFrame(ByteArrayOutputStream out, int major, String id, String text) throws IOException {
+        byte[] value = text.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] content = new byte[value.length + 1];
+        System.arraycopy(value, 0, content, 1, value.length);
+        frame(out, major, id, content);
+    }
+
+    private static void frame(ByteArrayOutputStream out, int major, String id, byte[] content) throws IOException {
+        out.write(id.getBytes(StandardCharsets.US_ASCII));
+        if (major == 4) {
+            out.write(synchsafe(content.length));
+        } else {
+            byte[] size = new byte[4];
+            writeInt(size, 0, content.length);
+            out.write(size);
+        }
+        out.write(new byte[2]);
+        out.write(content);
+    }
+
+    private static byte[] id3v1() {
+        byte[] tag = new byte[128];
+        writeAscii(tag, 0, "TAG");
+        writeAscii(tag, 3, "Benchmark Title v1");
+        writeAscii(tag, 33, "Benchmark Artist v1");
+        writeAscii(tag, 63, "Benchmark Album v1");
+        writeAscii(tag, 93, "1999");
+        return tag;
+    }
+
+    private static byte[] synchsafe(int value) {
+        return new byte[]{
+                (byte) ((value >> 21) & 0x7F), (byte) ((value >> 14) & 0x7F),
+                (byte) ((value >> 7) & 0x7F), (byte) (value & 0x7F)
+        };
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static void writeAscii(byte[] target, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+    }
+}
@@ -0,0 +1,69 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.resource.metadata.Mp3Metadata;
+import com.tamirian.resource.metadata.Mp3MetadataExtractor;
+import org.apache.tika.Tika;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.openjdk.jmh.annotations.*;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the header-only {@link Mp3MetadataExtractor} with the Tika detect + Mp3Parser
+ * path it replaces, over the checked-in {@link Mp3Corpus}.
+ *
+ * <pre>
+ * mvn -pl resource-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar Mp3MetadataBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Mp3MetadataBenchmark {
+
+    @Param({"ID3V23_CBR", "ID3V24_VBR", "ID3V23_ARTWORK", "ID3V1_ONLY", "UNTAGGED"})
+    public Mp3Corpus.Layout layout;
+
+    @Param({"16", "256", "2048"})
+    public int sizeKb;
+
+    private final Mp3MetadataExtractor extractor = new Mp3MetadataExtractor();
+    private final Tika tika = new Tika();
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        file = Mp3Corpus.file(layout, sizeKb);
+    }
+
+    @Benchmark
+    public Mp3Metadata extractor() throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return extractor.extract(channel);
+        }
+    }
+
+    @Benchmark
+    public Metadata tika() throws Exception {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            if (!"audio/mpeg".equals(tika.detect(in))) {
+                throw new IllegalStateException("Corpus file not detected as MP3: " + file);
+            }
+            Metadata metadata = new Metadata();
+            new Mp3Parser().parse(in, new BodyContentHandler(), metadata, new ParseContext());
+            return metadata;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.gateway_service.ratelimit.GcraRateLimiter;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link GcraRateLimiter#tryAcquire} call under 16 threads, reported as
+ * aggregate throughput: ops/us above the core count means under a microsecond per
+ * request. {@code distinctClients} spreads calls over 10k client keys;
+ * {@code hotClient} sends every thread to the same key, so with the unbounded rate
+ * every call is an admitted, contended CAS and with 50/s nearly every call is a reject.
+ *
+ * <pre>
+ * mvn -pl gateway-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar RateLimiterBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    @Param({"50", "1000000000"})
+    public double permitsPerSecond;
+
+    private GcraRateLimiter limiter;
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new GcraRateLimiter(permitsPerSecond, 100, CLIENTS);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(CLIENTS);
+    }
+
+    @Benchmark
+    public long distinctClients(Cursor cursor) {
+        int i = cursor.next;
+        cursor.next = i + 1 == CLIENTS ? 0 : i + 1;
+        return limiter.tryAcquire(clients[i]);
+    }
+
+    @Benchmark
+    public long hotClient() {
+        return limiter.tryAcquire(clients[0]);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.resource.metadata.SongFields;
+import com.tamirian.resource.service.IdParser;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Request and tag parsing in resource-service: {@link IdParser#parseCsvIds} for the
+ * {@code DELETE /resources?id=} list, from one ID up to the 200-character limit, and
+ * the {@link SongFields} conversions applied to every extracted tag set. Years mix
+ * valid values with the full dates, short values and nulls seen in real tags.
+ *
+ * <pre>
+ * mvn -pl resource-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar ResourceInputBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceInputBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Csv {
+
+        @Param({"1", "10", "40"})
+        public int ids;
+
+        String csv;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            csv = IntStream.range(0, ids)
+                    .mapToObj(i -> Integer.toString(1000 + i))
+                    .collect(Collectors.joining(","));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Tags {
+
+        final long[] durations = new long[SAMPLES];
+        final String[] years = new String[SAMPLES];
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            String[] malformed = {null, "", "20", "1899", "2004-05-06", "unknown"};
+            for (int i = 0; i < SAMPLES; i++) {
+                durations[i] = random.nextInt(600_000);
+                years[i] = random.nextInt(4) == 0
+                        ? malformed[random.nextInt(malformed.length)]
+                        : Integer.toString(1950 + random.nextInt(75));
+            }
+        }
+
+        int next() {
+            return next++ & (SAMPLES - 1);
+        }
+    }
+
+    @Benchmark
+    public List<Long> parseCsvIds(Csv csv) {
+        return IdParser.parseCsvIds(csv.csv);
+    }
+
+    @Benchmark
+    public String formatDuration(Tags tags) {
+        return SongFields.formatDuration(tags.durations[tags.next()]);
+    }
+
+    @Benchmark
+    public String validateYear(Tags tags) {
+        return SongFields.validateYear(tags.years[tags.next()]);
+    }
+}
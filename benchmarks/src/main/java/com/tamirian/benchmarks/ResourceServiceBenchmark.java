@@ -0,0 +1,70 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.resource.dto.SongMetadataDto;
+import com.tamirian.resource.metadata.Mp3MetadataExtractor;
+import com.tamirian.resource.metadata.TikaMp3Fallback;
+import com.tamirian.resource.service.ResourceService;
+import org.openjdk.jmh.annotations.*;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-file work of an upload and of metadata delivery, measured through
+ * {@link ResourceService} over the checked-in {@link Mp3Corpus}. {@code validateMp3}
+ * sniffs an in-memory upload through the same 64 KB buffer the upload uses;
+ * {@code extractMetadata} opens the stored file and builds the song-service DTO.
+ * Repositories and clients are left out; neither path touches them.
+ *
+ * <pre>
+ * mvn -pl resource-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar ResourceServiceBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceServiceBenchmark {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @Param({"ID3V23_CBR", "ID3V24_VBR", "ID3V23_ARTWORK", "ID3V1_ONLY", "UNTAGGED"})
+    public Mp3Corpus.Layout layout;
+
+    @Param({"16", "256", "2048"})
+    public int sizeKb;
+
+    private ResourceService service;
+    private Path file;
+    private byte[] upload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = new ResourceService(null, null, null, null, null, null,
+                new Mp3MetadataExtractor(), new TikaMp3Fallback(), null, null, null);
+        file = Mp3Corpus.file(layout, sizeKb);
+        upload = Files.readAllBytes(file);
+    }
+
+    @Benchmark
+    public InputStream validateMp3() throws Exception {
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(upload), READ_BUFFER_SIZE);
+        service.validateMp3(in);
+        return in;
+    }
+
+    @Benchmark
+    public SongMetadataDto extractMetadata() throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return service.extractMetadata(channel, 1L);
+        }
+    }
+}
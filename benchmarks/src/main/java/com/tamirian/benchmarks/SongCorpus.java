@@ -0,0 +1,88 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.song.dto.SongMetadataDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogue: song names drawn from a skewed vocabulary,
+ * with artists and albums shared by many songs as in a real library.
+ */
+public final class SongCorpus {
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private final Random random;
+    private final String[] vocabulary;
+    private final String[] artists;
+    private final String[] albums;
+
+    public SongCorpus(long seed, int songs) {
+        this.random = new Random(seed);
+        this.vocabulary = words(Math.max(1_000, songs / 20));
+        this.artists = phrases(Math.max(10, songs / 25), 1, 2);
+        this.albums = phrases(Math.max(10, songs / 10), 1, 3);
+    }
+
+    public List<SongMetadataDto> songs(int count) {
+        List<SongMetadataDto> songs = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            songs.add(new SongMetadataDto(
+                    Integer.toString(i),
+                    phrase(1, 4),
+                    artists[random.nextInt(artists.length)],
+                    albums[random.nextInt(albums.length)],
+                    String.format("%02d:%02d", random.nextInt(10), random.nextInt(60)),
+                    Integer.toString(1950 + random.nextInt(75))));
+        }
+        return songs;
+    }
+
+    /** Type-ahead style queries: one or two tokens, the last one usually cut short. */
+    public String[] queries(int count) {
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String last = word();
+            last = last.substring(0, 1 + random.nextInt(last.length()));
+            queries[i] = random.nextInt(3) == 0 ? word() + " " + last : last;
+        }
+        return queries;
+    }
+
+    private String[] words(int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    private String[] phrases(int count, int minWords, int maxWords) {
+        String[] phrases = new String[count];
+        for (int i = 0; i < count; i++) {
+            phrases[i] = phrase(minWords, maxWords);
+        }
+        return phrases;
+    }
+
+    private String phrase(int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder phrase = new StringBuilder(word());
+        for (int i = 1; i < words; i++) {
+            phrase.append(' ').append(word());
+        }
+        return phrase.toString();
+    }
+
+    // squaring the uniform draw skews picks towards the head of the vocabulary
+    private String word() {
+        double u = random.nextDouble();
+        return vocabulary[(int) (u * u * vocabulary.length)];
+    }
+}
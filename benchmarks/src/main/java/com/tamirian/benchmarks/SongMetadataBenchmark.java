@@ -0,0 +1,84 @@
+package com.tamirian.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.mapper.SongMetadataMapper;
+import com.tamirian.song.model.SongMetadata;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-song conversions in song-service: {@link SongMetadataMapper} in both directions
+ * and the JSON round trip of {@link SongMetadataDto} through an {@link ObjectMapper}
+ * configured like Spring MVC's, over a synthetic {@link SongCorpus} catalogue.
+ *
+ * <pre>
+ * mvn -pl song-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar SongMetadataBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SongMetadataBenchmark {
+
+    private static final int SONGS = 1024;
+
+    private final SongMetadataMapper mapper = new SongMetadataMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private SongMetadataDto[] dtos;
+    private SongMetadata[] entities;
+    private byte[][] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<SongMetadataDto> songs = new SongCorpus(42, SONGS).songs(SONGS);
+        dtos = songs.toArray(SongMetadataDto[]::new);
+        entities = new SongMetadata[SONGS];
+        json = new byte[SONGS][];
+        for (int i = 0; i < SONGS; i++) {
+            entities[i] = mapper.toEntity(dtos[i]);
+            json[i] = objectMapper.writeValueAsBytes(dtos[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int next() {
+            return next++ & (SONGS - 1);
+        }
+    }
+
+    @Benchmark
+    public SongMetadata toEntity(Cursor cursor) {
+        return mapper.toEntity(dtos[cursor.next()]);
+    }
+
+    @Benchmark
+    public SongMetadataDto toDto(Cursor cursor) {
+        return mapper.toDto(entities[cursor.next()]);
+    }
+
+    @Benchmark
+    public byte[] serialize(Cursor cursor) throws Exception {
+        return objectMapper.writeValueAsBytes(dtos[cursor.next()]);
+    }
+
+    @Benchmark
+    public SongMetadataDto deserialize(Cursor cursor) throws Exception {
+        return objectMapper.readValue(json[cursor.next()], SongMetadataDto.class);
+    }
+
+    @Benchmark
+    public SongMetadataDto roundTrip(Cursor cursor) throws Exception {
+        byte[] bytes = objectMapper.writeValueAsBytes(dtos[cursor.next()]);
+        return objectMapper.readValue(bytes, SongMetadataDto.class);
+    }
+}
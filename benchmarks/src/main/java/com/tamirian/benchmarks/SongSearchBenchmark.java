@@ -0,0 +1,49 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.search.SongSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency percentiles of {@link SongSearchIndex} over a synthetic catalogue.
+ * Memory per song is reported by {@link SongSearchFootprint}.
+ *
+ * <pre>
+ * mvn -pl song-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar SongSearchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class SongSearchBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int songs;
+
+    private SongSearchIndex index;
+    private String[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SongCorpus corpus = new SongCorpus(42, songs);
+        index = new SongSearchIndex(256, 4096);
+        corpus.songs(songs).forEach(index::add);
+        queries = corpus.queries(4096);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public List<SongMetadataDto> search(Cursor cursor) {
+        return index.search(queries[cursor.next++ & (queries.length - 1)], 10);
+    }
+}
@@ -0,0 +1,42 @@
+package com.tamirian.benchmarks;
+
+import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.search.SongSearchIndex;
+import java.util.List;
+
+/**
+ * Retained heap of {@link SongSearchIndex} per million songs, measured as the
+ * difference in used heap after full GCs. The generated corpus is dropped before
+ * the second measurement, so everything counted, strings included, is held by the index.
+ *
+ * <pre>
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar com.tamirian.benchmarks.SongSearchFootprint 1000000
+ * </pre>
+ */
+public final class SongSearchFootprint {
+
+    public static void main(String[] args) {
+        int songs = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        List<SongMetadataDto> corpus = new SongCorpus(42, songs).songs(songs);
+        SongSearchIndex index = new SongSearchIndex(256, 4096);
+        long start = System.nanoTime();
+        corpus.forEach(index::add);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        corpus = null;
+        long bytes = usedHeap() - before;
+
+        System.out.printf("songs=%d terms=%d build=%d ms%n", index.size(), index.termCount(), buildMillis);
+        System.out.printf("index heap=%.1f MB, %.0f bytes/song, %.1f MB per million songs%n",
+                bytes / 1e6, (double) bytes / songs, bytes / 1e6 * 1_000_000 / songs);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,80 @@
+package com.tamirian.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamirian.song.dto.SongBatchItemResult;
+import com.tamirian.song.dto.SongBatchResultDto;
+import com.tamirian.song.dto.SongMetadataDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code POST /songs/batch} exchange between resource-service and song-service in
+ * each wire format: writing and reading the metadata batch and its per-item results
+ * with the object mappers Spring's JSON and CBOR converters build. Payload sizes are
+ * printed once per trial.
+ *
+ * <pre>
+ * mvn -pl song-service,benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar WireFormatBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "50", "500"})
+    public int songs;
+
+    private ObjectMapper objectMapper;
+    private JavaType requestType;
+    private List<SongMetadataDto> request;
+    private SongBatchResultDto response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = "cbor".equals(format)
+                ? Jackson2ObjectMapperBuilder.cbor().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        requestType = objectMapper.getTypeFactory().constructCollectionType(List.class, SongMetadataDto.class);
+        request = new SongCorpus(42, songs).songs(songs);
+        response = new SongBatchResultDto(request.stream()
+                .map(song -> SongBatchItemResult.of(song.id(), SongBatchItemResult.Status.CREATED))
+                .toList());
+        requestBytes = objectMapper.writeValueAsBytes(request);
+        responseBytes = objectMapper.writeValueAsBytes(response);
+        System.out.printf("%n%s, %d songs: request %d bytes, response %d bytes%n",
+                format, songs, requestBytes.length, responseBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public List<SongMetadataDto> readRequest() throws Exception {
+        return objectMapper.readValue(requestBytes, requestType);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public SongBatchResultDto readResponse() throws Exception {
+        return objectMapper.readValue(responseBytes, SongBatchResultDto.class);
+    }
+}
@@ -1,9 +1,13 @@
 package com.tamirian.gateway_service;
 
+import com.tamirian.commons.discovery.SnapshotDiscoveryConfiguration;
+import com.tamirian.commons.loadbalancer.PowerOfTwoChoicesLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 
 @SpringBootApplication
+@LoadBalancerClients(defaultConfiguration = {PowerOfTwoChoicesLoadBalancerConfiguration.class, SnapshotDiscoveryConfiguration.class})
 public class GatewayServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package com.tamirian.gateway_service.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A complete 200 response as it came back from upstream, with the entity tag it is
+ * served under.
+ */
+public record CachedResponse(HttpHeaders headers, byte[] body, String eTag) {
+
+    public int size() {
+        return body.length;
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+        String opaqueTag = opaque(eTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaqueTag)) return true;
+        }
+        return false;
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix on either side is ignored.
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
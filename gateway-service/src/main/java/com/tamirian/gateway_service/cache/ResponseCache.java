@@ -0,0 +1,185 @@
+package com.tamirian.gateway_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte-budgeted store of upstream GET responses keyed by route and item ID, plus the
+ * bookkeeping around it: concurrent misses for one key share a single {@link Fill},
+ * and every invalidation bumps a generation so a fill that was already in flight when
+ * its item got deleted is not stored.
+ * <p>
+ * Services share IDs (a resource and its song metadata have the same ID), so an
+ * invalidation drops the ID from every route.
+ */
+@Component
+public class ResponseCache {
+
+    public enum Result { HIT, COALESCED, NOT_MODIFIED, MISS }
+
+    public record Key(String routeId, long id) {}
+
+    // Rough per-entry cost of the key, headers and cache node on top of the body.
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<Key, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> routeIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long maxEntryBytes;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${gateway.cache.max-bytes:256MB}") DataSize maxBytes,
+                         @Value("${gateway.cache.max-entry-bytes:16MB}") DataSize maxEntryBytes,
+                         @Value("${gateway.cache.ttl:10m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntryBytes = Math.min(maxEntryBytes.toBytes(), Integer.MAX_VALUE - ENTRY_OVERHEAD);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .<Key, CachedResponse>weigher((key, response) -> response.size() + ENTRY_OVERHEAD)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+        Gauge.builder("gateway.cache.size", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public CachedResponse get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Joins the fill already running for the key, or starts one that the caller leads.
+     */
+    public Fill beginFill(Key key) {
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> running = inFlight.putIfAbsent(key, sink);
+        return running == null
+                ? new Fill(key, sink, generation.get(), true)
+                : new Fill(key, running, 0, false);
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        generation.incrementAndGet();
+        for (String routeId : routeIds) {
+            for (Long id : ids) {
+                cache.invalidate(new Key(routeId, id));
+            }
+        }
+    }
+
+    public void record(String routeId, Result result, long bytesSaved) {
+        RouteMeters meters = routeMeters.computeIfAbsent(routeId, RouteMeters::new);
+        meters.results.get(result).increment();
+        if (bytesSaved > 0) {
+            meters.bytesSaved.increment(bytesSaved);
+        }
+    }
+
+    public final class Fill {
+
+        private final Key key;
+        private final Sinks.One<CachedResponse> sink;
+        private final long startGeneration;
+        private final boolean leader;
+
+        private Fill(Key key, Sinks.One<CachedResponse> sink, long startGeneration, boolean leader) {
+            this.key = key;
+            this.sink = sink;
+            this.startGeneration = startGeneration;
+            this.leader = leader;
+        }
+
+        public boolean leader() {
+            return leader;
+        }
+
+        /**
+         * The leader's response once it has been read in full; empty when it could not
+         * be cached, in which case followers go upstream themselves.
+         */
+        public Mono<CachedResponse> result() {
+            return sink.asMono();
+        }
+
+        /**
+         * Called by the leader when its exchange ends, with the captured response or
+         * null.
+         */
+        public void complete(CachedResponse response) {
+            if (response != null && generation.get() == startGeneration) {
+                cache.put(key, response);
+                routeIds.add(key.routeId());
+                // An invalidation that raced with the put must still win.
+                if (generation.get() != startGeneration) {
+                    cache.invalidate(key);
+                }
+            }
+            inFlight.remove(key, sink);
+            if (response != null) {
+                sink.tryEmitValue(response);
+            } else {
+                sink.tryEmitEmpty();
+            }
+        }
+    }
+
+    private final class RouteMeters {
+
+        private final Map<Result, Counter> results = new EnumMap<>(Result.class);
+        private final Counter bytesSaved;
+
+        private RouteMeters(String routeId) {
+            for (Result result : Result.values()) {
+                results.put(result, Counter.builder("gateway.cache.requests")
+                        .tag("route", routeId)
+                        .tag("result", result.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            this.bytesSaved = Counter.builder("gateway.cache.bytes.saved")
+                    .tag("route", routeId)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.cache.hit.ratio", this, RouteMeters::hitRatio)
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private double hitRatio() {
+            double hits = 0;
+            double total = 0;
+            for (Map.Entry<Result, Counter> entry : results.entrySet()) {
+                double count = entry.getValue().count();
+                total += count;
+                if (entry.getKey() != Result.MISS) hits += count;
+            }
+            return total == 0 ? 0 : hits / total;
+        }
+    }
+}
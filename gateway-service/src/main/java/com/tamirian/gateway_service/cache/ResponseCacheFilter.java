@@ -0,0 +1,348 @@
+package com.tamirian.gateway_service.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Serves repeated item reads ({@code GET /{collection}/{id}}) from {@link ResponseCache}.
+ * A miss is forwarded and its 200 response is copied as it streams to the client;
+ * concurrent misses for the same item wait for that one upstream request. Hits answer
+ * {@code If-None-Match} with 304 and single byte ranges from the cached body. Deletes
+ * passing through ({@code DELETE /{collection}?id=} and {@code POST /{collection}/delete})
+ * invalidate the requested IDs up front and the IDs the service reports as deleted
+ * once it answers.
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Pattern ITEM_PATH = Pattern.compile("/[^/]+/(\\d{1,18})");
+    private static final Pattern COLLECTION_PATH = Pattern.compile("/[^/]+");
+    private static final Pattern BULK_DELETE_PATH = Pattern.compile("/[^/]+/delete");
+    private static final int MAX_DELETE_RESPONSE_BYTES = 8 * 1024 * 1024;
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ResponseCacheFilter(ResponseCache responseCache,
+                               ObjectMapper objectMapper,
+                               @Value("${gateway.cache.enabled:true}") boolean enabled) {
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int getOrder() {
+        // Runs before load balancing so hits never pick an instance, and wraps the
+        // response before the routing filters write to it.
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (request.getMethod() == HttpMethod.GET && request.getQueryParams().isEmpty()) {
+            Matcher item = ITEM_PATH.matcher(path);
+            if (item.matches()) {
+                return cachedGet(exchange, chain, new ResponseCache.Key(route.getId(), Long.parseLong(item.group(1))));
+            }
+        }
+        if ((request.getMethod() == HttpMethod.DELETE && COLLECTION_PATH.matcher(path).matches())
+                || (request.getMethod() == HttpMethod.POST && BULK_DELETE_PATH.matcher(path).matches())) {
+            return invalidatingDelete(exchange, chain);
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> cachedGet(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache.Key key) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        boolean revalidate = requestHeaders.getCacheControl() != null
+                && requestHeaders.getCacheControl().contains("no-cache");
+        if (!revalidate) {
+            CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return serve(exchange, chain, key, cached, ResponseCache.Result.HIT);
+            }
+        }
+        if (requestHeaders.containsKey(HttpHeaders.RANGE)) {
+            // Partial responses are not cached; the entry is filled by a plain GET.
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Fill fill = responseCache.beginFill(key);
+        if (!fill.leader()) {
+            return fill.result()
+                    .flatMap(cached -> serve(exchange, chain, key, cached, ResponseCache.Result.COALESCED).thenReturn(true))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(false)))
+                    .then();
+        }
+
+        responseCache.record(key.routeId(), ResponseCache.Result.MISS, 0);
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> fill.complete(response.captured()));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, ResponseCache.Key key,
+                             CachedResponse cached, ResponseCache.Result result) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        ServerHttpResponse response = exchange.getResponse();
+
+        if (cached.matches(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(cached.eTag());
+            responseCache.record(key.routeId(), ResponseCache.Result.NOT_MODIFIED, 0);
+            return response.setComplete();
+        }
+
+        byte[] body = cached.body();
+        int offset = 0;
+        int length = body.length;
+        String range = requestHeaders.getFirst(HttpHeaders.RANGE);
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        boolean rangeable = "bytes".equals(cached.headers().getFirst(HttpHeaders.ACCEPT_RANGES));
+        if (range != null && rangeable && (ifRange == null || ifRange.equals(cached.eTag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() != 1 || ranges.get(0).getRangeStart(body.length) >= body.length) {
+                // Multipart and unsatisfiable ranges are left to the service.
+                return chain.filter(exchange);
+            }
+            long start = ranges.get(0).getRangeStart(body.length);
+            long end = ranges.get(0).getRangeEnd(body.length);
+            offset = (int) start;
+            length = (int) (end - start + 1);
+            response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+            response.getHeaders().set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + body.length);
+        } else {
+            response.setStatusCode(HttpStatus.OK);
+        }
+
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setETag(cached.eTag());
+        response.getHeaders().setContentLength(length);
+        responseCache.record(key.routeId(), result, length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(ByteBuffer.wrap(body, offset, length).slice())));
+    }
+
+    private Mono<Void> invalidatingDelete(ServerWebExchange exchange, GatewayFilterChain chain) {
+        List<Long> requested = parseIds(exchange.getRequest().getQueryParams().getFirst("id"));
+        responseCache.invalidate(requested);
+        DeleteResponse response = new DeleteResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    responseCache.invalidate(requested);
+                    responseCache.invalidate(response.deletedIds());
+                });
+    }
+
+    private static List<Long> parseIds(String csv) {
+        if (csv == null) return List.of();
+        List<Long> ids = new ArrayList<>();
+        for (String part : csv.split(",")) {
+            try {
+                ids.add(Long.parseLong(part.trim()));
+            } catch (NumberFormatException e) {
+                // The service rejects the request; nothing to invalidate for this part.
+            }
+        }
+        return ids;
+    }
+
+    private static boolean isOk(HttpStatusCode status) {
+        return status != null && status.value() == HttpStatus.OK.value();
+    }
+
+    /**
+     * Copies the body of a cacheable 200 response while it is written to the client.
+     */
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private BodyCopy copy;
+        private MessageDigest digest;
+        private volatile CachedResponse captured;
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        CachedResponse captured() {
+            return captured;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            List<String> cacheControl = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+            if (!isOk(getStatusCode())
+                    || headers.getContentLength() > responseCache.maxEntryBytes()
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || cacheControl.stream().anyMatch(value -> value.contains("no-store") || value.contains("private"))) {
+                return super.writeWith(body);
+            }
+
+            copy = new BodyCopy(headers.getContentLength(), responseCache.maxEntryBytes());
+            if (headers.getETag() == null) {
+                digest = sha256();
+            }
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> {
+                        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                            while (chunks.hasNext()) {
+                                ByteBuffer chunk = chunks.next();
+                                if (digest != null) {
+                                    digest.update(chunk.duplicate());
+                                }
+                                copy.append(chunk);
+                            }
+                        }
+                    })
+                    .doOnComplete(this::capture));
+        }
+
+        private void capture() {
+            byte[] body = copy.toByteArray();
+            if (body == null) return;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONNECTION);
+            headers.remove(HttpHeaders.DATE);
+            headers.remove(HttpHeaders.ETAG);
+            String eTag = digest == null
+                    ? getHeaders().getETag()
+                    : "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16)) + "\"";
+            captured = new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body, eTag);
+        }
+    }
+
+    /**
+     * Reads the {"ids": [...]} body a successful delete answers with.
+     */
+    private class DeleteResponse extends ServerHttpResponseDecorator {
+
+        private BodyCopy copy;
+
+        DeleteResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isOk(getStatusCode())) {
+                return super.writeWith(body);
+            }
+            copy = new BodyCopy(getHeaders().getContentLength(), MAX_DELETE_RESPONSE_BYTES);
+            return super.writeWith(Flux.from(body).doOnNext(buffer -> {
+                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                    while (chunks.hasNext()) {
+                        copy.append(chunks.next());
+                    }
+                }
+            }));
+        }
+
+        List<Long> deletedIds() {
+            byte[] body = copy == null ? null : copy.toByteArray();
+            if (body == null) return List.of();
+            try {
+                List<Long> ids = new ArrayList<>();
+                for (JsonNode id : objectMapper.readTree(body).path("ids")) {
+                    ids.add(id.asLong());
+                }
+                return ids;
+            } catch (IOException e) {
+                log.warn("Could not read deleted IDs from response: {}", e.getMessage());
+                return List.of();
+            }
+        }
+    }
+
+    /**
+     * Growable copy of a response body that gives up once it passes its limit.
+     */
+    private static final class BodyCopy {
+
+        private final long limit;
+        private byte[] bytes;
+        private int size;
+        private boolean overflowed;
+
+        BodyCopy(long contentLength, long limit) {
+            this.limit = limit;
+            this.bytes = new byte[(int) (contentLength >= 0 ? contentLength : Math.min(8192, limit))];
+        }
+
+        void append(ByteBuffer chunk) {
+            int length = chunk.remaining();
+            if (overflowed) return;
+            if ((long) size + length > limit) {
+                overflowed = true;
+                bytes = null;
+                return;
+            }
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(limit, Math.max((long) size + length, 2L * bytes.length)));
+            }
+            chunk.get(bytes, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            if (overflowed) return null;
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
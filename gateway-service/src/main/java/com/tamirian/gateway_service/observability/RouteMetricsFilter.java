@@ -0,0 +1,130 @@
+package com.tamirian.gateway_service.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Times every routed exchange from the first filter until the response body is
+ * written, into a histogram per route, status and upstream instance
+ * ({@code gateway.route.latency}). Buckets are exported on /actuator/prometheus so
+ * percentiles can be taken across gateway instances. Each exchange also gets one JSON
+ * line on the {@code gateway.access} logger, which logback hands to an async appender.
+ * The instance is {@code none} when no upstream was called, e.g. cache hits and rejects.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("gateway.access");
+
+    private record TimerKey(String route, String status, String instance) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final boolean accessLogEnabled;
+
+    public RouteMetricsFilter(MeterRegistry meterRegistry,
+                              @Value("${gateway.access-log.enabled:true}") boolean accessLogEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.accessLogEnabled = accessLogEnabled;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> record(exchange, signal, System.nanoTime() - start));
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long durationNanos) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "none" : route.getId();
+        String status = status(exchange, signal);
+        String instance = instance(exchange);
+
+        timers.computeIfAbsent(new TimerKey(routeId, status, instance), key -> Timer.builder("gateway.route.latency")
+                        .tag("route", key.route())
+                        .tag("status", key.status())
+                        .tag("instance", key.instance())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        if (accessLogEnabled && accessLog.isInfoEnabled()) {
+            accessLog.info(accessLine(exchange, routeId, status, instance, durationNanos));
+        }
+    }
+
+    private static String status(ServerWebExchange exchange, SignalType signal) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null) return Integer.toString(status.value());
+        return switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "200";
+        };
+    }
+
+    private static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getHost() == null || "lb".equals(url.getScheme())) return "none";
+        return url.getHost() + ":" + url.getPort();
+    }
+
+    private static String accessLine(ServerWebExchange exchange, String routeId, String status, String instance,
+                                     long durationNanos) {
+        ServerHttpRequest request = exchange.getRequest();
+        InetSocketAddress remote = request.getRemoteAddress();
+        StringBuilder line = new StringBuilder(256)
+                .append("{\"ts\":\"").append(Instant.now())
+                .append("\",\"method\":\"").append(request.getMethod().name())
+                .append("\",\"path\":\"");
+        appendEscaped(line, request.getPath().value());
+        line.append("\",\"route\":\"").append(routeId)
+                .append("\",\"instance\":\"").append(instance)
+                .append("\",\"status\":\"").append(status)
+                .append("\",\"durationMs\":").append(durationNanos / 1_000 / 1000.0)
+                .append(",\"bytes\":").append(exchange.getResponse().getHeaders().getContentLength())
+                .append(",\"client\":\"")
+                .append(remote == null || remote.getAddress() == null ? "" : remote.getAddress().getHostAddress())
+                .append("\"}");
+        return line.toString();
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
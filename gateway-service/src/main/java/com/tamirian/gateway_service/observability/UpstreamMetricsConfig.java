@@ -0,0 +1,28 @@
+package com.tamirian.gateway_service.observability;
+
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UpstreamMetricsConfig {
+
+    /**
+     * Reactor Netty client meters for the routed calls: connect, TLS, request/response
+     * time and bytes per upstream address. The URI tag is cut down to its first path
+     * segment so item IDs don't turn into separate meters.
+     */
+    @Bean
+    public HttpClientCustomizer upstreamMetricsCustomizer() {
+        return httpClient -> httpClient.metrics(true, UpstreamMetricsConfig::collection);
+    }
+
+    static String collection(String uri) {
+        int start = uri.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < uri.length() && uri.charAt(end) != '/' && uri.charAt(end) != '?') {
+            end++;
+        }
+        return "/" + uri.substring(start, end);
+    }
+}
@@ -0,0 +1,76 @@
+package com.tamirian.gateway_service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key rate limiter using the generic cell rate algorithm. Each key holds only its
+ * theoretical arrival time (TAT) in an {@link AtomicLong}: a request is admitted if
+ * pushing the TAT one emission interval forward keeps it within the burst tolerance of
+ * now, and the push is a single CAS. There are no locks and no refill timers.
+ * <p>
+ * Keys live in a Caffeine cache bounded by {@code maxKeys} that expires a key once it
+ * has gone unused for the burst tolerance (at least a second): by then its TAT has
+ * fallen behind the clock and it is indistinguishable from a new key. A request racing
+ * with an expiry may land on the dropped entry and go uncounted, which costs at most
+ * one extra permit; a key evicted for size while still active starts over with a full
+ * burst.
+ */
+public class GcraRateLimiter {
+
+    private static final long MIN_IDLE_NANOS = 1_000_000_000L;
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> arrivals;
+
+    public GcraRateLimiter(double permitsPerSecond, int burst, long maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    public GcraRateLimiter(double permitsPerSecond, int burst, long maxKeys, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Rate, burst and key limit must be positive");
+        }
+        this.emissionInterval = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstTolerance = emissionInterval * burst;
+        this.nanoClock = nanoClock;
+        this.arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstTolerance, MIN_IDLE_NANOS)))
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes one permit for the key.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong arrival = arrivals.getIfPresent(key);
+        if (arrival == null) {
+            arrival = arrivals.get(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = arrival.get();
+            long next = (tat - now > 0 ? tat : now) + emissionInterval;
+            long wait = next - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return arrivals.estimatedSize();
+    }
+}
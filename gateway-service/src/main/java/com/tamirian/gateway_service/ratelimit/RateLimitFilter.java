@@ -0,0 +1,129 @@
+package com.tamirian.gateway_service.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client limits in front of resource-service: one for uploads
+ * ({@code POST /resources}, and {@code /resources/batch} at one permit per request) and a
+ * looser one for reads ({@code GET /resources/**}).
+ * Clients are told apart by remote IP. A request carrying one of the configured API
+ * keys in the API key header is limited per key instead; any other header value is
+ * ignored, so a client can't get a fresh bucket by making keys up. With no keys
+ * configured (the default) the header is not looked at.
+ * Rejected requests get 429 with Retry-After before any routing work is done.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final String UPLOAD = "resource-upload";
+    private static final String READ = "resource-read";
+
+    private final GcraRateLimiter uploadLimiter;
+    private final GcraRateLimiter readLimiter;
+    private final Counter uploadRejected;
+    private final Counter readRejected;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final boolean enabled;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${gateway.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                           @Value("${gateway.rate-limit.api-keys:}") Set<String> apiKeys,
+                           @Value("${gateway.rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${gateway.rate-limit.upload.permits-per-second:5}") double uploadRate,
+                           @Value("${gateway.rate-limit.upload.burst:10}") int uploadBurst,
+                           @Value("${gateway.rate-limit.read.permits-per-second:50}") double readRate,
+                           @Value("${gateway.rate-limit.read.burst:100}") int readBurst) {
+        this.enabled = enabled;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.uploadLimiter = new GcraRateLimiter(uploadRate, uploadBurst, maxClients);
+        this.readLimiter = new GcraRateLimiter(readRate, readBurst, maxClients);
+        this.uploadRejected = rejectedCounter(meterRegistry, UPLOAD);
+        this.readRejected = rejectedCounter(meterRegistry, READ);
+        Gauge.builder("gateway.ratelimit.clients", uploadLimiter, GcraRateLimiter::size)
+                .tag("rule", UPLOAD)
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.clients", readLimiter, GcraRateLimiter::size)
+                .tag("rule", READ)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith("/resources")) {
+            return chain.filter(exchange);
+        }
+
+        long waitNanos;
+        if (request.getMethod() == HttpMethod.POST && (path.equals("/resources") || path.equals("/resources/batch"))) {
+            waitNanos = uploadLimiter.tryAcquire(clientKey(request));
+            if (waitNanos > 0) uploadRejected.increment();
+        } else if (request.getMethod() == HttpMethod.GET && path.startsWith("/resources/")) {
+            waitNanos = readLimiter.tryAcquire(clientKey(request));
+            if (waitNanos > 0) readRejected.increment();
+        } else {
+            return chain.filter(exchange);
+        }
+        return waitNanos > 0 ? reject(exchange, waitNanos) : chain.filter(exchange);
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        if (!apiKeys.isEmpty()) {
+            String apiKey = request.getHeaders().getFirst(apiKeyHeader);
+            if (apiKey != null && apiKeys.contains(apiKey)) {
+                return "key:" + apiKey;
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? "unknown" : remote.getAddress().getHostAddress();
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"errorMessage\":\"Too many requests, retry after " + retryAfter
+                + " seconds\",\"errorCode\":\"429\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String rule) {
+        return Counter.builder("gateway.ratelimit.rejected")
+                .tag("rule", rule)
+                .register(meterRegistry);
+    }
+}
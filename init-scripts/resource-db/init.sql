@@ -1,4 +1,43 @@
+CREATE TABLE IF NOT EXISTS resource_blob (
+    hash VARCHAR(64) PRIMARY KEY,
+    location VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    name VARCHAR(100),
+    artist VARCHAR(100),
+    album VARCHAR(100),
+    duration VARCHAR(5),
+    year VARCHAR(4)
+);
+
 CREATE TABLE IF NOT EXISTS resource (
     id BIGSERIAL PRIMARY KEY,
-    data BIGINT NOT NULL
-);
\ No newline at end of file
+    content_hash VARCHAR(64) NOT NULL REFERENCES resource_blob (hash),
+    location VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS resource_content_hash_idx ON resource (content_hash);
+
+CREATE TABLE IF NOT EXISTS metadata_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    resource_id BIGINT NOT NULL REFERENCES resource (id) ON DELETE CASCADE,
+    attempts INT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS metadata_outbox_next_attempt_idx ON metadata_outbox (next_attempt_at);
+CREATE INDEX IF NOT EXISTS metadata_outbox_resource_id_idx ON metadata_outbox (resource_id);
+
+CREATE TABLE IF NOT EXISTS metadata_tombstone (
+    id BIGSERIAL PRIMARY KEY,
+    resource_id BIGINT NOT NULL,
+    attempts INT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS metadata_tombstone_next_attempt_idx ON metadata_tombstone (next_attempt_at);
@@ -3,6 +3,21 @@ CREATE TABLE IF NOT EXISTS song_metadata (
     name VARCHAR(255) NOT NULL,
     artist VARCHAR(255),
     album VARCHAR(255),
-    duration VARCHAR(50),
+    duration_seconds INT,
     year INT
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS song_metadata_artist_id_idx ON song_metadata (artist, id);
+CREATE INDEX IF NOT EXISTS song_metadata_album_id_idx ON song_metadata (album, id);
+CREATE INDEX IF NOT EXISTS song_metadata_year_id_idx ON song_metadata (year, id);
+
+CREATE TABLE IF NOT EXISTS song_stats (
+    dimension VARCHAR(16) NOT NULL,
+    value VARCHAR(255) NOT NULL,
+    songs BIGINT NOT NULL,
+    timed_songs BIGINT NOT NULL,
+    total_seconds BIGINT NOT NULL,
+    PRIMARY KEY (dimension, value)
+);
+
+CREATE INDEX IF NOT EXISTS song_stats_dimension_songs_idx ON song_stats (dimension, songs DESC, value);
\ No newline at end of file
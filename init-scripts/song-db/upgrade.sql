@@ -0,0 +1,43 @@
+-- Brings a song_db created from an earlier init.sql up to the current schema. Fresh volumes
+-- run it right after init.sql, where it changes nothing; an existing volume needs it once by hand:
+--   docker compose exec -T song-db sh -c 'psql -U "$POSTGRES_USER" -d "$POSTGRES_DB"' < init-scripts/song-db/upgrade.sql
+
+CREATE INDEX IF NOT EXISTS song_metadata_artist_id_idx ON song_metadata (artist, id);
+CREATE INDEX IF NOT EXISTS song_metadata_album_id_idx ON song_metadata (album, id);
+CREATE INDEX IF NOT EXISTS song_metadata_year_id_idx ON song_metadata (year, id);
+
+CREATE TABLE IF NOT EXISTS song_stats (
+    dimension VARCHAR(16) NOT NULL,
+    value VARCHAR(255) NOT NULL,
+    songs BIGINT NOT NULL,
+    timed_songs BIGINT NOT NULL,
+    total_seconds BIGINT NOT NULL,
+    PRIMARY KEY (dimension, value)
+);
+
+CREATE INDEX IF NOT EXISTS song_stats_dimension_songs_idx ON song_stats (dimension, songs DESC, value);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'song_metadata' AND column_name = 'duration') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE song_metadata ADD COLUMN IF NOT EXISTS duration_seconds INT;
+    UPDATE song_metadata
+    SET duration_seconds = split_part(duration, ':', 1)::int * 60 + split_part(duration, ':', 2)::int
+    WHERE duration ~ '^[0-9]{1,5}:[0-5][0-9]$';
+    ALTER TABLE song_metadata DROP COLUMN duration;
+
+    DELETE FROM song_stats;
+    INSERT INTO song_stats (dimension, value, songs, timed_songs, total_seconds)
+    SELECT dimension, value, count(*), count(duration_seconds), coalesce(sum(duration_seconds), 0)
+    FROM (SELECT 'artist' AS dimension, artist AS value, duration_seconds FROM song_metadata WHERE artist IS NOT NULL
+          UNION ALL
+          SELECT 'album', album, duration_seconds FROM song_metadata WHERE album IS NOT NULL
+          UNION ALL
+          SELECT 'year', year::text, duration_seconds FROM song_metadata WHERE year IS NOT NULL) AS grouped
+    GROUP BY dimension, value;
+END
+$$;
\ No newline at end of file
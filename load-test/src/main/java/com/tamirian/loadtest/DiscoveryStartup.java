@@ -0,0 +1,78 @@
+package com.tamirian.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Time from gateway start to its first successfully routed request, for each way the
+ * gateway can find the services (see {@link EmbeddedStack.Discovery}). After one
+ * warm-up restart the gateway is restarted once per mode while song-service and
+ * resource-service keep running. A request counts once song-service answers
+ * {@code GET /songs/stats} and resource-service answers {@code GET /resources/0} (with
+ * its own 400), both through the gateway. Exits with 1 when the snapshot or static mode
+ * doesn't route within the timeout.
+ *
+ * <pre>
+ * mvn -pl load-test -am package -DskipTests
+ * java -Dloader.main=com.tamirian.loadtest.DiscoveryStartup -cp load-test/target/load-test-0.0.1-SNAPSHOT.jar \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher
+ * </pre>
+ */
+public final class DiscoveryStartup {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private DiscoveryStartup() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = 0;
+        System.out.println("Starting embedded Postgres, song-service, resource-service and gateway");
+        try (EmbeddedStack stack = new EmbeddedStack(false)) {
+            System.out.println("Warming up with one gateway restart");
+            stack.restartGateway(EmbeddedStack.Discovery.REGISTRY);
+            firstRouted(stack.gatewayUrl(), System.nanoTime() + TIMEOUT.toNanos());
+
+            System.out.printf("%-9s %12s %20s%n", "mode", "startup ms", "first routed ms");
+            for (EmbeddedStack.Discovery mode : EmbeddedStack.Discovery.values()) {
+                long start = stack.restartGateway(mode);
+                long up = System.nanoTime();
+                long routed = firstRouted(stack.gatewayUrl(), up + TIMEOUT.toNanos());
+                String firstRouted = routed < 0 ? "none in " + TIMEOUT.toSeconds() + " s" : Long.toString((routed - start) / 1_000_000);
+                System.out.printf("%-9s %12d %20s%n", mode, (up - start) / 1_000_000, firstRouted);
+                if (routed < 0 && (mode == EmbeddedStack.Discovery.SNAPSHOT || mode == EmbeddedStack.Discovery.STATIC)) {
+                    exitCode = 1;
+                }
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /** Returns {@link System#nanoTime()} when both routes first answered, or -1 past the deadline. */
+    private static long firstRouted(String gateway, long deadline) throws InterruptedException {
+        boolean songs = false;
+        boolean resources = false;
+        while (System.nanoTime() < deadline) {
+            songs = songs || status(gateway + "/songs/stats?limit=1") == 200;
+            resources = resources || status(gateway + "/resources/0") == 400;
+            if (songs && resources) return System.nanoTime();
+            Thread.sleep(5);
+        }
+        return -1;
+    }
+
+    private static int status(String url) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.tamirian.loadtest;
+
+import com.tamirian.gateway_service.GatewayServiceApplication;
+import com.tamirian.resource.ResourceMicroserviceApplication;
+import com.tamirian.song.SongMicroserviceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.UrlResource;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * song-service, resource-service and the gateway running in this JVM against one
+ * embedded Postgres, with Eureka replaced by Spring Cloud's simple discovery client
+ * pointing at the ports the services actually bound. All three jars ship an
+ * {@code application.properties}/{@code .yml} at the classpath root, so each context
+ * is given the file from its own jar as default properties and Boot's own lookup is
+ * switched off. Gateway and servlet auto-configuration are kept out of each other's
+ * contexts, and the gateway is pinned to Netty since Tomcat is on the classpath too.
+ * System properties still apply to every context, e.g. {@code -Dgateway.cache.enabled=false}.
+ * The gateway can be restarted with each of the ways it can learn where the services
+ * are, see {@link Discovery}.
+ */
+public class EmbeddedStack implements AutoCloseable {
+
+    /** Where a (re)started gateway finds the services. */
+    public enum Discovery {
+        /** The simple discovery client, standing in for a reachable registry. */
+        REGISTRY,
+        /** No registry; the discovery snapshot the gateway wrote before is kept. */
+        SNAPSHOT,
+        /** No registry and no snapshot; the static instance lists are configured. */
+        STATIC,
+        /** No registry, no snapshot and no static lists. */
+        NONE
+    }
+
+    private final EmbeddedPostgres postgres;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final Path storage;
+    private final Path discovery;
+    private final boolean accessLog;
+    private int songPort;
+    private int resourcePort;
+    private ConfigurableApplicationContext gateway;
+    private int gatewayPort;
+
+    public EmbeddedStack(boolean accessLog) throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        storage = Files.createTempDirectory("load-test-blobs");
+        discovery = Files.createTempDirectory("load-test-discovery");
+        this.accessLog = accessLog;
+        try {
+            String songDb = database("song_db", "init-scripts/song-db/init.sql");
+            String resourceDb = database("resource_db", "init-scripts/resource-db/init.sql");
+
+            songPort = start(SongMicroserviceApplication.class, "application.properties", WebApplicationType.SERVLET,
+                    servlet(songDb));
+
+            Map<String, String> resource = servlet(resourceDb);
+            resource.put("resource.storage.path", storage.toString());
+            resource.put("loadbalancer.snapshot.dir", discovery.resolve("resource-service").toString());
+            resource.put("spring.cloud.discovery.client.simple.instances.song-service[0].uri", "http://localhost:" + songPort);
+            resourcePort = start(ResourceMicroserviceApplication.class, "application.properties",
+                    WebApplicationType.SERVLET, resource);
+
+            startGateway(Discovery.REGISTRY);
+        } catch (Exception e) {
+            close();
+            throw e;
+        }
+    }
+
+    public String gatewayUrl() {
+        return "http://localhost:" + gatewayPort;
+    }
+
+    /**
+     * Stops the gateway and starts a new one, returning once it is up. Before a
+     * {@link Discovery#SNAPSHOT} start, waits for the running gateway to have written its
+     * snapshot; {@link Discovery#STATIC} and {@link Discovery#NONE} delete it. Returns
+     * {@link System#nanoTime()} from just before the new gateway began starting.
+     */
+    public long restartGateway(Discovery mode) throws IOException, InterruptedException {
+        Path snapshots = discovery.resolve("gateway");
+        if (mode == Discovery.SNAPSHOT) {
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!Files.exists(snapshots.resolve("song-service.instances"))
+                    || !Files.exists(snapshots.resolve("resource-service.instances"))) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("The gateway has not written a discovery snapshot to " + snapshots);
+                }
+                Thread.sleep(10);
+            }
+        }
+        contexts.remove(gateway);
+        gateway.close();
+        if (mode == Discovery.STATIC || mode == Discovery.NONE) {
+            delete(snapshots);
+        }
+        long start = System.nanoTime();
+        startGateway(mode);
+        return start;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        postgres.close();
+        delete(storage);
+        delete(discovery);
+    }
+
+    private void startGateway(Discovery mode) throws IOException {
+        Map<String, String> properties = common();
+        properties.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration");
+        properties.put("gateway.rate-limit.enabled", "false");
+        properties.put("gateway.access-log.enabled", Boolean.toString(accessLog));
+        properties.put("loadbalancer.snapshot.dir", discovery.resolve("gateway").toString());
+        if (mode == Discovery.REGISTRY) {
+            properties.put("spring.cloud.discovery.client.simple.instances.song-service[0].uri", "http://localhost:" + songPort);
+            properties.put("spring.cloud.discovery.client.simple.instances.resource-service[0].uri", "http://localhost:" + resourcePort);
+        } else if (mode == Discovery.STATIC) {
+            properties.put("loadbalancer.snapshot.static.song-service", "http://localhost:" + songPort);
+            properties.put("loadbalancer.snapshot.static.resource-service", "http://localhost:" + resourcePort);
+        }
+        gatewayPort = start(GatewayServiceApplication.class, "application.yml", WebApplicationType.REACTIVE, properties,
+                NettyServer.class);
+        gateway = contexts.get(contexts.size() - 1);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private String database(String name, String initScript) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        String sql = new ClassPathResource(initScript).getContentAsString(StandardCharsets.UTF_8);
+        try (Connection connection = postgres.getDatabase("postgres", name).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+        return postgres.getJdbcUrl("postgres", name);
+    }
+
+    private Map<String, String> common() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.config.name", "load-test-none");
+        properties.put("server.port", "0");
+        properties.put("eureka.client.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        return properties;
+    }
+
+    private Map<String, String> servlet(String jdbcUrl) {
+        Map<String, String> properties = common();
+        properties.put("spring.cloud.gateway.server.webflux.enabled", "false");
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "");
+        return properties;
+    }
+
+    private int start(Class<?> application, String configFile, WebApplicationType type,
+                      Map<String, String> overrides, Class<?>... extraSources) throws IOException {
+        List<Class<?>> sources = new ArrayList<>(List.of(application));
+        sources.addAll(List.of(extraSources));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(sources.toArray(Class<?>[]::new))
+                .web(type)
+                .properties(ownConfig(application, configFile))
+                .run(overrides.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+        contexts.add(context);
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /** Reads {@code name} from the jar or classes directory the application class was loaded from. */
+    private static Map<String, Object> ownConfig(Class<?> application, String name) throws IOException {
+        String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        Enumeration<URL> candidates = application.getClassLoader().getResources(name);
+        while (candidates.hasMoreElements()) {
+            URL url = candidates.nextElement();
+            String candidate = url.toString();
+            if (!candidate.startsWith(location) && !candidate.startsWith("jar:" + location + "!/")) continue;
+
+            PropertySourceLoader loader = name.endsWith(".yml") ? new YamlPropertySourceLoader() : new PropertiesPropertySourceLoader();
+            Map<String, Object> properties = new HashMap<>();
+            for (PropertySource<?> source : loader.load(name, new UrlResource(url))) {
+                EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
+                for (String property : enumerable.getPropertyNames()) {
+                    properties.putIfAbsent(property, enumerable.getProperty(property).toString());
+                }
+            }
+            return properties;
+        }
+        throw new IllegalStateException("No " + name + " next to " + application.getName() + " in " + location);
+    }
+
+    static class NettyServer {
+
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tamirian.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Heap and GC activity over the measured phase, for the whole JVM: the services and
+ * the load generator share one heap, so the figures bound what the stack needs rather
+ * than attribute it to a service. Peak heap is the sum of the heap pools' peaks, which
+ * can exceed what was in use at any single moment.
+ */
+public class JvmStats {
+
+    public record Collector(long collections, long timeMillis) {}
+
+    public record Snapshot(long heapUsed, long heapCommitted, long heapMax, long heapPeak,
+                           Map<String, Collector> collectors) {}
+
+    private final Map<String, Collector> start = collectors();
+
+    public JvmStats() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    public Snapshot finish() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+
+        Map<String, Collector> delta = new LinkedHashMap<>();
+        collectors().forEach((name, now) -> {
+            Collector before = start.getOrDefault(name, new Collector(0, 0));
+            delta.put(name, new Collector(now.collections() - before.collections(), now.timeMillis() - before.timeMillis()));
+        });
+        return new Snapshot(heap.getUsed(), heap.getCommitted(), heap.getMax(), peak, delta);
+    }
+
+    private static Map<String, Collector> collectors() {
+        Map<String, Collector> collectors = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(gc.getName(), new Collector(gc.getCollectionCount(), gc.getCollectionTime()));
+        }
+        return collectors;
+    }
+}
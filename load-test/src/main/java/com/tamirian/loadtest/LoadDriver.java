@@ -0,0 +1,212 @@
+package com.tamirian.loadtest;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop load: each worker picks an operation by the configured weights, waits for
+ * the response and goes again. Downloads, metadata reads and deletes pick from the
+ * resources uploaded so far and still alive; while there are none, the worker uploads
+ * instead. A new upload only becomes eligible once it is {@code --settle} old: its
+ * metadata reaches song-service through the outbox, and a read that gets there first
+ * is a 404 that song-service also caches for a few seconds.
+ */
+public class LoadDriver {
+
+    private static final Pattern UPLOADED_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final SyntheticMp3 mp3;
+    private final IdPool live;
+    private final AtomicLong serial = new AtomicLong();
+    private final Operation[] schedule;
+
+    public LoadDriver(String baseUrl, LoadOptions options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mp3 = new SyntheticMp3(options.mp3Bytes());
+        this.schedule = schedule(options.mix());
+        this.live = new IdPool(options.settle().toNanos());
+    }
+
+    /** Uploads the initial library one at a time; failures abort the run. */
+    public void seed() throws Exception {
+        Random random = new Random(options.randomSeed());
+        OperationStats stats = new OperationStats();
+        for (int i = 0; i < options.seedFiles(); i++) {
+            upload(random, stats);
+        }
+        if (stats.errors() > 0) {
+            throw new IllegalStateException(stats.errors() + " of " + options.seedFiles() + " seed uploads failed");
+        }
+    }
+
+    public Map<Operation, OperationStats> run(Duration duration, long phaseSeed) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            Random random = new Random(phaseSeed * 31 + i);
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() - deadline < 0) {
+                    Operation operation = schedule[random.nextInt(schedule.length)];
+                    execute(operation, random, stats);
+                }
+            }, "load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return stats;
+    }
+
+    private void execute(Operation operation, Random random, Map<Operation, OperationStats> stats) {
+        Long id = operation == Operation.UPLOAD || operation == Operation.DELETE ? null : live.random(random);
+        if (id == null && operation != Operation.UPLOAD && operation != Operation.DELETE) {
+            operation = Operation.UPLOAD;
+        }
+        List<Long> batch = operation == Operation.DELETE ? live.take(random, options.deleteBatch()) : List.of();
+        if (operation == Operation.DELETE && batch.isEmpty()) {
+            operation = Operation.UPLOAD;
+        }
+
+        OperationStats target = stats.get(operation);
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case UPLOAD -> upload(random, target);
+                case DOWNLOAD -> download(id, target, start);
+                case METADATA -> metadata(id, target, start);
+                case DELETE -> delete(batch, target, start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            target.failed(System.nanoTime() - start);
+        }
+    }
+
+    private void upload(Random random, OperationStats stats) throws Exception {
+        byte[] body = mp3.next(random, serial.incrementAndGet());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/resources"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "audio/mpeg")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        stats.record(response.statusCode(), System.nanoTime() - start, body.length);
+
+        Matcher id = UPLOADED_ID.matcher(response.body());
+        if (response.statusCode() == 200 && id.find()) {
+            live.add(Long.parseLong(id.group(1)), System.nanoTime());
+        }
+    }
+
+    private void download(long id, OperationStats stats, long start) throws Exception {
+        HttpResponse<InputStream> response = client.send(get("/resources/" + id), HttpResponse.BodyHandlers.ofInputStream());
+        long read;
+        try (InputStream body = response.body()) {
+            read = body.transferTo(OutputStream.nullOutputStream());
+        }
+        stats.record(response.statusCode(), System.nanoTime() - start, read);
+    }
+
+    private void metadata(long id, OperationStats stats, long start) throws Exception {
+        HttpResponse<byte[]> response = client.send(get("/songs/" + id), HttpResponse.BodyHandlers.ofByteArray());
+        stats.record(response.statusCode(), System.nanoTime() - start, response.body().length);
+    }
+
+    private void delete(List<Long> ids, OperationStats stats, long start) throws Exception {
+        String csv = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/resources?id=" + csv))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        stats.record(response.statusCode(), System.nanoTime() - start, 0);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    /** One slot per unit of weight, so picking a random slot honours the mix. */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(Operation[]::new);
+    }
+
+    /** Live resource IDs with O(1) random pick and removal, holding back those not yet settled. */
+    private static final class IdPool {
+
+        private final long settleNanos;
+        private final ArrayDeque<long[]> settling = new ArrayDeque<>();
+        private final List<Long> ids = new ArrayList<>();
+
+        IdPool(long settleNanos) {
+            this.settleNanos = settleNanos;
+        }
+
+        synchronized void add(long id, long uploadedAt) {
+            settling.add(new long[]{id, uploadedAt});
+        }
+
+        synchronized Long random(Random random) {
+            promote();
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized List<Long> take(Random random, int count) {
+            promote();
+            List<Long> taken = new ArrayList<>(count);
+            while (taken.size() < count && !ids.isEmpty()) {
+                int index = random.nextInt(ids.size());
+                taken.add(ids.get(index));
+                ids.set(index, ids.get(ids.size() - 1));
+                ids.remove(ids.size() - 1);
+            }
+            return taken;
+        }
+
+        private void promote() {
+            long now = System.nanoTime();
+            while (!settling.isEmpty() && now - settling.peek()[1] >= settleNanos) {
+                ids.add(settling.poll()[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.tamirian.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/** Command line of {@link LoadTest}; every option is {@code --name=value}. */
+public record LoadOptions(
+        Duration duration,
+        Duration warmup,
+        int concurrency,
+        Map<Operation, Integer> mix,
+        int mp3Bytes,
+        int seedFiles,
+        int deleteBatch,
+        Duration settle,
+        long randomSeed,
+        double maxErrorRate,
+        Map<Operation, Duration> maxP99,
+        Path reportDirectory,
+        boolean accessLog
+) {
+
+    public static final String USAGE = """
+            options (defaults in brackets):
+              --duration=60s                measured phase [60s]
+              --warmup=15s                  unmeasured phase before it [15s]
+              --concurrency=16              closed-loop workers [16]
+              --mix=upload:10,download:50,metadata:35,delete:5
+                                            relative weight of each operation [as shown]
+              --mp3-size=256KB              size of each generated upload [256KB]
+              --seed-files=200              uploads made before the warmup [200]
+              --delete-batch=10             IDs per bulk delete [10]
+              --settle=6s                   age before an upload is read or deleted, so its
+                                            metadata has been delivered [6s]
+              --random-seed=42              seeds the operation sequence and tags [42]
+              --max-error-rate=0.01         fail when errors exceed this share of requests [0.01]
+              --max-p99=upload:2s,...       fail when an operation's p99 exceeds its limit [none]
+              --report-dir=load-test/results
+                                            where the JSON report goes [load-test/results]
+              --access-log=false            keep the gateway access log on [false]
+            """;
+
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognised argument '" + arg + "'");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadOptions options = new LoadOptions(
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                weights(values.getOrDefault("mix", "upload:10,download:50,metadata:35,delete:5")),
+                (int) DataSize.parse(values.getOrDefault("mp3-size", "256KB")).toBytes(),
+                Integer.parseInt(values.getOrDefault("seed-files", "200")),
+                Integer.parseInt(values.getOrDefault("delete-batch", "10")),
+                DurationStyle.detectAndParse(values.getOrDefault("settle", "6s")),
+                Long.parseLong(values.getOrDefault("random-seed", "42")),
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                limits(values.getOrDefault("max-p99", "")),
+                Path.of(values.getOrDefault("report-dir", "load-test/results")),
+                Boolean.parseBoolean(values.getOrDefault("access-log", "false")));
+
+        values.keySet().removeAll(Set.of("duration", "warmup", "concurrency", "mix", "mp3-size", "seed-files", "delete-batch",
+                "settle", "random-seed", "max-error-rate", "max-p99", "report-dir", "access-log"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> weights(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        pairs(spec).forEach((operation, weight) -> weights.put(operation, Integer.parseInt(weight)));
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The operation mix must have a positive weight");
+        }
+        return weights;
+    }
+
+    private static Map<Operation, Duration> limits(String spec) {
+        Map<Operation, Duration> limits = new EnumMap<>(Operation.class);
+        pairs(spec).forEach((operation, limit) -> limits.put(operation, DurationStyle.detectAndParse(limit)));
+        return limits;
+    }
+
+    private static Map<Operation, String> pairs(String spec) {
+        Map<Operation, String> pairs = new EnumMap<>(Operation.class);
+        if (spec.isBlank()) return pairs;
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.trim().split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:value but got '" + pair + "'");
+            }
+            pairs.put(Operation.valueOf(parts[0].trim().toUpperCase()), parts[1].trim());
+        }
+        return pairs;
+    }
+}
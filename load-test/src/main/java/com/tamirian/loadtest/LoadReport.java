@@ -0,0 +1,107 @@
+package com.tamirian.loadtest;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the measured phase: per-operation throughput and latency percentiles, JVM
+ * heap and GC activity, and the gates that failed. Written as JSON next to earlier
+ * runs so releases can be compared and gated.
+ */
+public record LoadReport(
+        String commit,
+        Instant finishedAt,
+        LoadOptions options,
+        double seconds,
+        Map<Operation, OperationReport> operations,
+        JvmStats.Snapshot jvm,
+        List<String> violations
+) {
+
+    public record OperationReport(long requests, long ok, long misses, long errors,
+                                  double perSecond, double megabytesPerSecond,
+                                  double meanMillis, double p50Millis, double p90Millis,
+                                  double p99Millis, double p999Millis, double maxMillis) {
+
+        static OperationReport of(OperationStats stats, double seconds) {
+            Histogram latency = stats.latency();
+            long requests = stats.ok() + stats.misses() + stats.errors();
+            return new OperationReport(requests, stats.ok(), stats.misses(), stats.errors(),
+                    requests / seconds, stats.bytes() / seconds / (1024 * 1024),
+                    latency.getMean() / 1e6, millis(latency, 50), millis(latency, 90),
+                    millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6);
+        }
+
+        private static double millis(Histogram latency, double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    public static LoadReport of(String commit, LoadOptions options, double seconds,
+                                Map<Operation, OperationStats> stats, JvmStats.Snapshot jvm) {
+        Map<Operation, OperationReport> operations = new EnumMap<>(Operation.class);
+        stats.forEach((operation, operationStats) -> operations.put(operation, OperationReport.of(operationStats, seconds)));
+
+        List<String> violations = new ArrayList<>();
+        long requests = operations.values().stream().mapToLong(OperationReport::requests).sum();
+        long errors = operations.values().stream().mapToLong(OperationReport::errors).sum();
+        double errorRate = requests == 0 ? 1 : (double) errors / requests;
+        if (errorRate > options.maxErrorRate()) {
+            violations.add(String.format("error rate %.4f above %.4f (%d of %d requests)",
+                    errorRate, options.maxErrorRate(), errors, requests));
+        }
+        options.maxP99().forEach((operation, limit) -> {
+            OperationReport report = operations.get(operation);
+            if (report.requests() > 0 && report.p99Millis() > limit.toMillis()) {
+                violations.add(String.format("%s p99 %.1f ms above %d ms", operation, report.p99Millis(), limit.toMillis()));
+            }
+        });
+        return new LoadReport(commit, Instant.now(), options, seconds, operations, jvm, violations);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-9s %9s %8s %7s %7s %9s %8s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s",
+                "misses", "errors", "MB/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        operations.forEach((operation, r) -> out.printf("%-9s %9d %8.1f %7d %7d %9.2f %8.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.name().toLowerCase(), r.requests(), r.perSecond(), r.misses(), r.errors(), r.megabytesPerSecond(),
+                r.meanMillis(), r.p50Millis(), r.p90Millis(), r.p99Millis(), r.p999Millis(), r.maxMillis()));
+
+        out.printf("%nheap: used %d MB, committed %d MB, max %d MB, peak %d MB (whole JVM: services and load generator)%n",
+                jvm.heapUsed() >> 20, jvm.heapCommitted() >> 20, jvm.heapMax() >> 20, jvm.heapPeak() >> 20);
+        jvm.collectors().forEach((name, gc) -> out.printf("gc: %-24s %6d collections %8d ms (%.1f%% of the run)%n",
+                name, gc.collections(), gc.timeMillis(), gc.timeMillis() / (seconds * 10)));
+
+        if (violations.isEmpty()) {
+            out.println("\nPASSED");
+        } else {
+            out.println("\nFAILED");
+            violations.forEach(violation -> out.println("  " + violation));
+        }
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(commit + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .build()
+                .writeValue(file.toFile(), this);
+        return file;
+    }
+}
@@ -0,0 +1,75 @@
+package com.tamirian.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * End-to-end load test of gateway, resource-service and song-service running in this
+ * JVM on an embedded Postgres (see {@link EmbeddedStack}); nothing else needs to be
+ * running and no network access is required. Seeds a library, warms up, measures,
+ * prints the report and writes it as JSON to {@code load-test/results}. Exits with 1
+ * when a gate in {@link LoadOptions} fails, so it can block a release.
+ *
+ * <pre>
+ * mvn -pl load-test -am package -DskipTests
+ * java -jar load-test/target/load-test-0.0.1-SNAPSHOT.jar --duration=60s --concurrency=16 --max-p99=download:500ms
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadOptions.USAGE);
+            return;
+        }
+        LoadOptions options = LoadOptions.parse(args);
+
+        int exitCode;
+        long start = System.nanoTime();
+        System.out.println("Starting embedded Postgres, song-service, resource-service and gateway");
+        try (EmbeddedStack stack = new EmbeddedStack(options.accessLog())) {
+            System.out.printf("Stack up in %.1f s at %s%n", (System.nanoTime() - start) / 1e9, stack.gatewayUrl());
+
+            LoadDriver driver = new LoadDriver(stack.gatewayUrl(), options);
+            System.out.printf("Seeding %d uploads of %d KB%n", options.seedFiles(), options.mp3Bytes() / 1024);
+            driver.seed();
+            System.out.printf("Warming up for %s with %d workers%n", options.warmup(), options.concurrency());
+            driver.run(options.warmup(), 1);
+
+            System.out.printf("Measuring for %s, mix %s%n", options.duration(), options.mix());
+            JvmStats jvm = new JvmStats();
+            long measured = System.nanoTime();
+            Map<Operation, OperationStats> stats = driver.run(options.duration(), 2);
+            double seconds = (System.nanoTime() - measured) / 1e9;
+
+            LoadReport report = LoadReport.of(commit(), options, seconds, stats, jvm.finish());
+            report.print(System.out);
+            Path file = report.write(options.reportDirectory());
+            System.out.println("Report written to " + file);
+            exitCode = report.violations().isEmpty() ? 0 : 1;
+        }
+        System.exit(exitCode);
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (InputStream out = git.getInputStream()) {
+                String sha = new String(out.readAllBytes(), StandardCharsets.UTF_8).trim();
+                return git.waitFor() == 0 && !sha.isEmpty() ? sha : "unknown";
+            }
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tamirian.loadtest;
+
+/** What a load-test worker does in one iteration, always through the gateway. */
+public enum Operation {
+    /** {@code POST /resources} with a freshly generated MP3. */
+    UPLOAD,
+    /** {@code GET /resources/{id}} of a live resource, body read to the end. */
+    DOWNLOAD,
+    /** {@code GET /songs/{id}} of a live resource. */
+    METADATA,
+    /** {@code DELETE /resources?id=...} of a batch of live resources. */
+    DELETE
+}
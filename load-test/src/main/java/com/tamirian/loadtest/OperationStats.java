@@ -0,0 +1,59 @@
+package com.tamirian.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one operation type during a phase. 2xx and 304 count as success; a 404
+ * is a miss, which is expected when a worker picks a resource another one just deleted
+ * or metadata that is still in the outbox; anything else, including transport
+ * failures, is an error. Latency is recorded for every attempt.
+ */
+public class OperationStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Recorder latency = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public void record(int status, long latencyNanos, long transferred) {
+        latency.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        bytes.add(transferred);
+        if ((status >= 200 && status < 300) || status == 304) {
+            ok.increment();
+        } else if (status == 404) {
+            misses.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    public void failed(long latencyNanos) {
+        record(-1, latencyNanos, 0);
+    }
+
+    public Histogram latency() {
+        return latency.getIntervalHistogram();
+    }
+
+    public long ok() {
+        return ok.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long bytes() {
+        return bytes.sum();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tamirian.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Builds unique MP3 uploads: an ID3v2.3 tag with random title, artist, album and year
+ * in front of silent 128 kbps / 44.1 kHz MPEG-1 Layer III frames. The tag differs per
+ * file, so uploads are never deduplicated by content hash.
+ */
+public class SyntheticMp3 {
+
+    private static final int FRAME_LENGTH = 417;
+    private static final String[] WORDS = {
+            "blue", "night", "river", "echo", "gold", "paper", "signal", "summer", "glass", "north",
+            "velvet", "static", "harbor", "neon", "quiet", "orbit", "ember", "lantern", "wild", "silver"
+    };
+
+    private final byte[] frames;
+
+    public SyntheticMp3(int sizeBytes) {
+        int count = Math.max(2, sizeBytes / FRAME_LENGTH);
+        frames = new byte[count * FRAME_LENGTH];
+        for (int i = 0; i < count; i++) {
+            frames[i * FRAME_LENGTH] = (byte) 0xFF;
+            frames[i * FRAME_LENGTH + 1] = (byte) 0xFB;
+            frames[i * FRAME_LENGTH + 2] = (byte) 0x90;
+        }
+    }
+
+    public byte[] next(Random random, long serial) {
+        ByteArrayOutputStream tag = new ByteArrayOutputStream(256);
+        textFrame(tag, "TIT2", phrase(random) + " " + serial);
+        textFrame(tag, "TPE1", phrase(random));
+        textFrame(tag, "TALB", phrase(random));
+        textFrame(tag, "TYER", Integer.toString(1950 + random.nextInt(75)));
+
+        int size = tag.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10 + size + frames.length);
+        out.writeBytes(new byte[]{'I', 'D', '3', 3, 0, 0,
+                (byte) ((size >> 21) & 0x7F), (byte) ((size >> 14) & 0x7F), (byte) ((size >> 7) & 0x7F), (byte) (size & 0x7F)});
+        out.writeBytes(tag.toByteArray());
+        out.writeBytes(frames);
+        return out.toByteArray();
+    }
+
+    private static String phrase(Random random) {
+        int words = 1 + random.nextInt(3);
+        StringBuilder phrase = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < words; i++) {
+            phrase.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+
+    private static void textFrame(ByteArrayOutputStream out, String id, String text) {
+        byte[] value = text.getBytes(StandardCharsets.ISO_8859_1);
+        int size = value.length + 1;
+        out.writeBytes(id.getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(new byte[]{(byte) (size >>> 24), (byte) (size >>> 16), (byte) (size >>> 8), (byte) size, 0, 0, 0});
+        out.writeBytes(value);
+    }
+}
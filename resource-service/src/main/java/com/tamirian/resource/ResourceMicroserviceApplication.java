@@ -1,9 +1,15 @@
 package com.tamirian.resource;
 
+import com.tamirian.commons.discovery.SnapshotDiscoveryConfiguration;
+import com.tamirian.commons.loadbalancer.PowerOfTwoChoicesLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@LoadBalancerClients(defaultConfiguration = {PowerOfTwoChoicesLoadBalancerConfiguration.class, SnapshotDiscoveryConfiguration.class})
 public class ResourceMicroserviceApplication {
 
 	public static void main(String[] args) {
@@ -1,8 +1,11 @@
 package com.tamirian.resource.advice;
 
 import com.tamirian.resource.exception.BadRequestException;
+import com.tamirian.resource.exception.RangeNotSatisfiableException;
 import com.tamirian.resource.exception.ResourceNotFoundException;
+import com.tamirian.resource.exception.SongServiceUnavailableException;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,6 +13,8 @@ import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -55,6 +60,34 @@ public class ControllerAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<ErrorResponse> handleRangeNotSatisfiable(RangeNotSatisfiableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "416");
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getSize())
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(SongServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleSongServiceUnavailable(SongServiceUnavailableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "503");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "413");
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
+    @ExceptionHandler(MultipartException.class)
+    public ResponseEntity<ErrorResponse> handleBadMultipart(MultipartException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "400");
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "500");
@@ -0,0 +1,30 @@
+package com.tamirian.resource.batch;
+
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The files of a batch upload in request order. A file's content has to be read
+ * before the next file is asked for, since a tar stream can only be read forwards.
+ */
+@FunctionalInterface
+public interface BatchSource {
+
+    record File(String name, InputStream content) {}
+
+    /** Returns {@code null} after the last file. */
+    File next() throws IOException;
+
+    static BatchSource of(List<MultipartFile> files) {
+        Iterator<MultipartFile> remaining = files.iterator();
+        return () -> {
+            if (!remaining.hasNext()) return null;
+            MultipartFile file = remaining.next();
+            String name = file.getOriginalFilename() == null ? file.getName() : file.getOriginalFilename();
+            return new File(name, file.getInputStream());
+        };
+    }
+}
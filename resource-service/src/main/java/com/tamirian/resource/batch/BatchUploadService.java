@@ -0,0 +1,315 @@
+package com.tamirian.resource.batch;
+
+import com.tamirian.resource.client.SongServiceClient;
+import com.tamirian.resource.dto.BatchUploadResult;
+import com.tamirian.resource.dto.SongBatchItemResult;
+import com.tamirian.resource.dto.SongMetadataDto;
+import com.tamirian.resource.exception.BadRequestException;
+import com.tamirian.resource.model.Resource;
+import com.tamirian.resource.model.ResourceBlob;
+import com.tamirian.resource.observability.PhaseMetrics;
+import com.tamirian.resource.repository.BatchUploadRepository;
+import com.tamirian.resource.repository.ResourceBlobRepository;
+import com.tamirian.resource.service.BlobReclaimer;
+import com.tamirian.resource.service.ResourceService;
+import com.tamirian.resource.storage.BlobStore;
+import com.tamirian.resource.storage.BlobWriter;
+import com.tamirian.resource.storage.SpoolingInputStream;
+import com.tamirian.resource.storage.StoredBlob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Uploads many MP3s in one request. Files are spooled and validated one after the
+ * other as the request is read, their metadata is extracted in parallel on a bounded
+ * fork-join pool, and everything is stored in one transaction: blob locks taken in
+ * hash order, new blobs, resources and outbox rows inserted in JDBC batches. The
+ * metadata of the whole batch then goes to song-service in one call. The outbox rows
+ * are written leased to this request, so the pipeline only picks up what the request
+ * could not deliver.
+ */
+@Slf4j
+@Service
+public class BatchUploadService {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final ResourceService resourceService;
+    private final BlobStore blobStore;
+    private final ResourceBlobRepository blobRepository;
+    private final BatchUploadRepository batchRepository;
+    private final BlobReclaimer blobReclaimer;
+    private final SongServiceClient songServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final PhaseMetrics phaseMetrics;
+    private final ForkJoinPool extractors;
+    private final int maxFiles;
+    private final Duration lease;
+
+    private static final class Spooled {
+        final String name;
+        final int position;
+        final BlobWriter writer;
+        ResourceBlob metadata;
+        ResourceBlob blob;
+        long id;
+
+        Spooled(String name, int position, BlobWriter writer) {
+            this.name = name;
+            this.position = position;
+            this.writer = writer;
+        }
+    }
+
+    public BatchUploadService(ResourceService resourceService,
+                              BlobStore blobStore,
+                              ResourceBlobRepository blobRepository,
+                              BatchUploadRepository batchRepository,
+                              BlobReclaimer blobReclaimer,
+                              SongServiceClient songServiceClient,
+                              PlatformTransactionManager transactionManager,
+                              PhaseMetrics phaseMetrics,
+                              @Value("${resource.batch.parallelism:0}") int parallelism,
+                              @Value("${resource.batch.max-files:500}") int maxFiles,
+                              @Value("${resource.metadata.pipeline.lease:60s}") Duration lease) {
+        this.resourceService = resourceService;
+        this.blobStore = blobStore;
+        this.blobRepository = blobRepository;
+        this.batchRepository = batchRepository;
+        this.blobReclaimer = blobReclaimer;
+        this.songServiceClient = songServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.phaseMetrics = phaseMetrics;
+        this.extractors = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxFiles = maxFiles;
+        this.lease = lease;
+    }
+
+    public List<BatchUploadResult> upload(BatchSource source) throws IOException {
+        List<BatchUploadResult> results = new ArrayList<>();
+        List<Spooled> files = new ArrayList<>();
+        try {
+            long start = System.nanoTime();
+            long bytes = spool(source, files, results);
+            if (results.isEmpty()) {
+                throw new BadRequestException("Batch must contain at least one file");
+            }
+            if (files.isEmpty()) return results;
+            start = phaseMetrics.record("resource.batch", "spool", start, bytes);
+
+            extract(files);
+            start = phaseMetrics.record("resource.batch", "extract", start, bytes);
+
+            transactionTemplate.executeWithoutResult(status -> store(files));
+            start = phaseMetrics.record("resource.batch", "save", start, bytes);
+
+            Set<Long> delivered = deliver(files);
+            phaseMetrics.record("resource.batch", "send", start, bytes);
+
+            for (Spooled file : files) {
+                results.set(file.position, BatchUploadResult.created(file.name, file.id, delivered.contains(file.id)));
+            }
+            return results;
+        } finally {
+            for (Spooled file : files) {
+                file.writer.close();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractors.shutdown();
+    }
+
+    private long spool(BatchSource source, List<Spooled> files, List<BatchUploadResult> results) throws IOException {
+        long bytes = 0;
+        for (BatchSource.File file = source.next(); file != null; file = source.next()) {
+            if (results.size() == maxFiles) {
+                throw new BadRequestException("Too many files: maximum allowed is " + maxFiles);
+            }
+            BlobWriter writer = blobStore.newWriter();
+            try (InputStream mp3 = new BufferedInputStream(new SpoolingInputStream(file.content(), writer), READ_BUFFER_SIZE)) {
+                try {
+                    resourceService.validateMp3(mp3);
+                } catch (BadRequestException e) {
+                    writer.close();
+                    results.add(BatchUploadResult.invalid(file.name(), e.getMessage()));
+                    continue;
+                }
+                mp3.transferTo(OutputStream.nullOutputStream());
+                writer.finish();
+            } catch (IOException | RuntimeException e) {
+                writer.close();
+                throw e;
+            }
+            files.add(new Spooled(file.name(), results.size(), writer));
+            results.add(null);
+            bytes += writer.size();
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses one copy of each blob that isn't stored with its metadata yet. Content that
+     * was uploaded before, or repeats within the batch, isn't parsed again; if such a
+     * blob is deleted before {@link #store} runs, the pipeline extracts it later.
+     */
+    private void extract(List<Spooled> files) {
+        List<String> hashes = files.stream().map(file -> file.writer.hash()).distinct().toList();
+        Set<String> described = blobRepository.findAllById(hashes).stream()
+                .filter(blob -> blob.getName() != null)
+                .map(ResourceBlob::getHash)
+                .collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        List<Spooled> pending = files.stream()
+                .filter(file -> !described.contains(file.writer.hash()) && seen.add(file.writer.hash()))
+                .toList();
+        if (pending.isEmpty()) return;
+        try {
+            extractors.submit(() -> pending.parallelStream().forEach(this::extract)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while extracting metadata", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Metadata extraction failed", e.getCause());
+        }
+    }
+
+    /** A file whose metadata can't be read is still stored; the pipeline retries it from the blob. */
+    private void extract(Spooled file) {
+        try (FileChannel mp3 = file.writer.openChannel()) {
+            ResourceBlob metadata = new ResourceBlob();
+            resourceService.extractInto(metadata, mp3);
+            file.metadata = metadata;
+        } catch (Exception e) {
+            log.warn("Could not extract metadata of batch file {}: {}", file.name, e.getMessage());
+        }
+    }
+
+    private void store(List<Spooled> files) {
+        Map<String, List<Spooled>> byHash = new TreeMap<>();
+        for (Spooled file : files) {
+            byHash.computeIfAbsent(file.writer.hash(), hash -> new ArrayList<>()).add(file);
+        }
+        batchRepository.lockBlobs(List.copyOf(byHash.keySet()));
+        Map<String, ResourceBlob> existing = blobRepository.findAllById(byHash.keySet()).stream()
+                .collect(Collectors.toMap(ResourceBlob::getHash, Function.identity()));
+
+        List<ResourceBlob> created = new ArrayList<>();
+        byHash.forEach((hash, copies) -> {
+            Spooled first = copies.get(0);
+            ResourceBlob blob = existing.get(hash);
+            if (blob == null) {
+                blob = commit(first);
+                blob.setRefCount(copies.size());
+                created.add(blob);
+            } else {
+                blob.setRefCount(blob.getRefCount() + copies.size());
+            }
+            if (blob.getName() == null && first.metadata != null) {
+                copyMetadata(first.metadata, blob);
+            }
+            for (Spooled copy : copies) {
+                copy.blob = blob;
+            }
+        });
+        batchRepository.insertBlobs(created);
+
+        long[] ids = batchRepository.allocateResourceIds(files.size());
+        List<Resource> resources = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Spooled file = files.get(i);
+            file.id = ids[i];
+            resources.add(new Resource(file.id, file.blob.getHash(), file.blob.getLocation(), file.blob.getSize()));
+        }
+        batchRepository.insertResources(resources);
+
+        Instant now = Instant.now();
+        batchRepository.insertOutbox(resources.stream().map(Resource::getId).toList(), now, now.plus(lease));
+    }
+
+    /**
+     * Sends the metadata of every file whose blob has it in one call and clears the
+     * outbox rows song-service stored. The rest is handed back to the pipeline.
+     * Returns the resource IDs whose metadata was delivered.
+     */
+    private Set<Long> deliver(List<Spooled> files) {
+        List<Long> ids = files.stream().map(file -> file.id).toList();
+        List<Spooled> ready = files.stream().filter(file -> file.blob.getName() != null).toList();
+        Set<Long> stored = new HashSet<>();
+        if (!ready.isEmpty()) {
+            List<SongMetadataDto> metadata = ready.stream()
+                    .map(file -> resourceService.toSongMetadata(file.blob, file.id))
+                    .toList();
+            try {
+                List<SongBatchItemResult> results = songServiceClient.sendMetadata(metadata);
+                for (int i = 0; i < ready.size(); i++) {
+                    if (results.get(i).stored()) {
+                        stored.add(ready.get(i).id);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Batch metadata delivery failed, leaving {} resources to the pipeline: {}", ready.size(), e.getMessage());
+            }
+        }
+
+        Set<Long> delivered = new HashSet<>();
+        if (!stored.isEmpty()) {
+            delivered.addAll(transactionTemplate.execute(status -> {
+                List<Long> removed = batchRepository.deleteOutbox(List.copyOf(stored));
+                // resources deleted during the batch; the pipeline removes their metadata again
+                Set<Long> remaining = new HashSet<>(removed);
+                batchRepository.insertTombstones(stored.stream().filter(id -> !remaining.contains(id)).toList());
+                return removed;
+            }));
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                batchRepository.releaseOutbox(ids.stream().filter(id -> !stored.contains(id)).toList()));
+        return delivered;
+    }
+
+    private ResourceBlob commit(Spooled file) {
+        try {
+            StoredBlob stored = file.writer.commit();
+            blobReclaimer.reclaimOnRollback(stored.hash(), stored.location());
+            ResourceBlob blob = new ResourceBlob();
+            blob.setHash(stored.hash());
+            blob.setLocation(stored.location());
+            blob.setSize(stored.size());
+            return blob;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void copyMetadata(ResourceBlob from, ResourceBlob to) {
+        to.setName(from.getName());
+        to.setArtist(from.getArtist());
+        to.setAlbum(from.getAlbum());
+        to.setDuration(from.getDuration());
+        to.setYear(from.getYear());
+    }
+}
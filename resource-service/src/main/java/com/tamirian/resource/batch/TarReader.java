@@ -0,0 +1,143 @@
+package com.tamirian.resource.batch;
+
+import com.tamirian.resource.exception.BadRequestException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the regular files out of a POSIX/GNU tar archive without buffering it.
+ * Directories, links and pax headers are skipped, GNU long names are honoured up to
+ * 64 KB, and sizes must fit the octal header field (under 8 GB per entry).
+ */
+public class TarReader implements BatchSource {
+
+    private static final int BLOCK = 512;
+    private static final int MAX_LONG_NAME = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long skip;
+    private boolean ended;
+
+    public TarReader(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public File next() throws IOException {
+        String longName = null;
+        while (!ended) {
+            skipFully(skip);
+            skip = 0;
+            if (in.readNBytes(header, 0, BLOCK) < BLOCK) {
+                throw new BadRequestException("Tar archive is truncated");
+            }
+            if (isZero(header)) {
+                ended = true;
+                return null;
+            }
+
+            long size = octal(124, 12);
+            long padded = (size + BLOCK - 1) / BLOCK * BLOCK;
+            byte type = header[156];
+            if (type == 'L') {
+                if (size > MAX_LONG_NAME) {
+                    throw new BadRequestException("Tar entry name is too long");
+                }
+                byte[] name = in.readNBytes((int) size);
+                longName = string(name, 0, name.length);
+                skip = padded - size;
+            } else if (type == '0' || type == 0) {
+                String name = longName != null ? longName : name();
+                skip = padded - size;
+                return new File(name, new EntryStream(size));
+            } else {
+                skip = padded;
+            }
+        }
+        return null;
+    }
+
+    private String name() {
+        String name = string(header, 0, 100);
+        String prefix = "ustar".equals(string(header, 257, 5)) ? string(header, 345, 155) : "";
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private long octal(int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            throw new BadRequestException("Tar entry is too large");
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value > 0) break;
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new BadRequestException("Malformed tar header");
+            }
+            value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+
+    private void skipFully(long count) throws IOException {
+        try {
+            in.skipNBytes(count);
+        } catch (EOFException e) {
+            throw new BadRequestException("Tar archive is truncated");
+        }
+    }
+
+    private static String string(byte[] bytes, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) end++;
+        return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isZero(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) return false;
+        }
+        return true;
+    }
+
+    /** The current entry's bytes; whatever is left unread is skipped on the next {@link #next()}. */
+    private class EntryStream extends InputStream {
+
+        private long remaining;
+
+        EntryStream(long size) {
+            this.remaining = size;
+            skip += size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) return -1;
+            int b = in.read();
+            if (b < 0) throw new BadRequestException("Tar archive is truncated");
+            remaining--;
+            skip--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) return -1;
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0) throw new BadRequestException("Tar archive is truncated");
+            remaining -= n;
+            skip -= n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tamirian.resource.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.tamirian.resource.model.Resource;
+import com.tamirian.resource.repository.ResourceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read-through cache of {@code resource} rows for downloads. Rows never change once
+ * written, so entries only leave on delete or eviction. Concurrent misses for one ID
+ * share a single database read, and missing IDs aren't cached, so a resource is
+ * visible as soon as its upload commits. Deletes evict their IDs and repeat that after
+ * the transaction completes, so a reader that loaded a row in between can't keep it.
+ */
+@Component
+public class ResourceCache {
+
+    private final LoadingCache<Long, Resource> cache;
+
+    public ResourceCache(ResourceRepository repository,
+                         MeterRegistry meterRegistry,
+                         @Value("${resource.cache.rows.maximum-size:100000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(id -> repository.findById(id).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "resources");
+    }
+
+    public Optional<Resource> get(long id) {
+        return Optional.ofNullable(cache.get(id));
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tamirian.resource.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that limits retries to a fraction of first attempts. Every call
+ * deposits {@code ratio} tokens and every retry spends one, so while song-service is
+ * failing the extra load from retries stays near {@code ratio} instead of multiplying
+ * by the attempt count. Tokens are kept in thousandths to allow atomic updates.
+ */
+class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    void deposit() {
+        tokens.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) return false;
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    double available() {
+        return (double) tokens.get() / SCALE;
+    }
+}
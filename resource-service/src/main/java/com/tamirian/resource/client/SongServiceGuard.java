@@ -0,0 +1,151 @@
+package com.tamirian.resource.client;
+
+import com.tamirian.resource.exception.SongServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer for calls to song-service, applied as retry → circuit breaker →
+ * bulkhead → call. The bulkhead never queues, so once song-service slows down callers
+ * fail fast instead of piling up on request threads. Only I/O errors, 5xx and 429
+ * count as failures and are retried, with jittered exponential backoff and only while
+ * the {@link RetryBudget} has tokens; the last attempt spends none, since no retry
+ * follows it. An open circuit or a full bulkhead surfaces as
+ * {@link SongServiceUnavailableException}.
+ * <p>
+ * Deletes call song-service inside their transaction, so the bulkhead should stay
+ * below the datasource pool size or slow calls can starve plain reads of connections.
+ */
+@Slf4j
+@Component
+public class SongServiceGuard {
+
+    private static final String NAME = "song-service";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final RetryBudget retryBudget;
+    private final Counter budgetExhausted;
+    private final Duration openStateWait;
+    private final int maxAttempts;
+    /** Attempts made by the call running on this thread, which the retry predicate can't see. */
+    private final ThreadLocal<int[]> attempts = new ThreadLocal<>();
+
+    public SongServiceGuard(MeterRegistry meterRegistry,
+                            @Value("${resource.song-service.bulkhead.max-concurrent-calls:5}") int maxConcurrentCalls,
+                            @Value("${resource.song-service.circuit-breaker.window-size:50}") int windowSize,
+                            @Value("${resource.song-service.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                            @Value("${resource.song-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                            @Value("${resource.song-service.circuit-breaker.slow-call-duration:2s}") Duration slowCallDuration,
+                            @Value("${resource.song-service.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                            @Value("${resource.song-service.circuit-breaker.open-state-wait:10s}") Duration openStateWait,
+                            @Value("${resource.song-service.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+                            @Value("${resource.song-service.retry.max-attempts:3}") int maxAttempts,
+                            @Value("${resource.song-service.retry.initial-backoff:100ms}") Duration initialBackoff,
+                            @Value("${resource.song-service.retry.max-backoff:2s}") Duration maxBackoff,
+                            @Value("${resource.song-service.retry.budget-ratio:0.2}") double budgetRatio,
+                            @Value("${resource.song-service.retry.budget-max-tokens:10}") int budgetMaxTokens) {
+        this.openStateWait = openStateWait;
+        this.maxAttempts = maxAttempts;
+        this.retryBudget = new RetryBudget(budgetRatio, budgetMaxTokens);
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(openStateWait)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordException(SongServiceGuard::isTransient)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(initialBackoff, 2.0, 0.5, maxBackoff))
+                .retryOnException(this::shouldRetry)
+                .build());
+
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.retry = retries.retry(NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Song Service circuit breaker: {}", event.getStateTransition()));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+        Gauge.builder("resilience4j.retry.budget.tokens", retryBudget, RetryBudget::available)
+                .tag("name", NAME)
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("resilience4j.retry.budget.exhausted")
+                .tag("name", NAME)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        Supplier<T> breaker = CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call));
+        int[] attempt = {0};
+        Supplier<T> guarded = Retry.decorateSupplier(retry, () -> {
+            attempt[0]++;
+            return breaker.get();
+        });
+        retryBudget.deposit();
+        attempts.set(attempt);
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            throw new SongServiceUnavailableException("Song Service is unavailable (circuit open)", openStateWait, e);
+        } catch (BulkheadFullException e) {
+            throw new SongServiceUnavailableException("Too many concurrent calls to Song Service", Duration.ofSeconds(1), e);
+        } finally {
+            attempts.remove();
+        }
+    }
+
+    private boolean shouldRetry(Throwable error) {
+        if (!isTransient(error)) return false;
+        // resilience4j asks before checking max-attempts; answering true keeps its metrics right
+        int[] attempt = attempts.get();
+        if (attempt != null && attempt[0] >= maxAttempts) return true;
+        if (retryBudget.tryWithdraw()) return true;
+        budgetExhausted.increment();
+        return false;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return error instanceof ResourceAccessException
+                || error instanceof HttpServerErrorException
+                || error instanceof HttpClientErrorException.TooManyRequests;
+    }
+}
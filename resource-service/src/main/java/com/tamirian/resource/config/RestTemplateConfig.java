@@ -1,15 +1,101 @@
 package com.tamirian.resource.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
+
+    @Value("${resource.http.client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${resource.http.client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${resource.http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${resource.http.client.connection-request-timeout:2s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${resource.http.client.response-timeout:10s}")
+    private Duration responseTimeout;
+
+    @Value("${resource.http.client.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${resource.http.client.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${resource.http.client.validate-after-inactivity:2s}")
+    private Duration validateAfterInactivity;
+
+    @Value("${resource.http.client.http2:false}")
+    private boolean http2;
+
     @Bean
     @LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
+        return new RestTemplate(clientHttpRequestFactory);
+    }
+
+    /**
+     * Pooled keep-alive connections for calls to other services. With http2 enabled the
+     * JDK client is used instead: it multiplexes requests over one connection per host
+     * and keeps its own pool, so the pool metrics below are not published.
+     */
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(MeterRegistry meterRegistry) {
+        if (http2) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+            factory.setReadTimeout(responseTimeout);
+            return factory;
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound")
+                .bindTo(meterRegistry);
+
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build());
     }
 }
@@ -1,10 +1,26 @@
 package com.tamirian.resource.controller;
 
+import com.tamirian.resource.batch.BatchSource;
+import com.tamirian.resource.batch.BatchUploadService;
+import com.tamirian.resource.batch.TarReader;
+import com.tamirian.resource.dto.BatchUploadResult;
+import com.tamirian.resource.dto.DeleteRequest;
+import com.tamirian.resource.dto.ResourceRange;
+import com.tamirian.resource.model.Resource;
 import com.tamirian.resource.service.ResourceService;
+import com.tamirian.resource.startup.FirstUploadTimer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -14,19 +30,47 @@ import java.util.Map;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final BatchUploadService batchUploadService;
+    private final FirstUploadTimer firstUploadTimer;
 
     @PostMapping(consumes = "audio/mpeg", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Long>> upload(@RequestBody byte[] data) throws Exception {
+    public ResponseEntity<Map<String, Long>> upload(InputStream data) throws Exception {
         Long id = resourceService.upload(data);
+        firstUploadTimer.uploadCompleted();
         return ResponseEntity.ok(Map.of("id", id));
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, List<BatchUploadResult>>> uploadBatch(@RequestParam MultiValueMap<String, MultipartFile> files)
+            throws Exception {
+        List<MultipartFile> parts = files.values().stream().flatMap(Collection::stream).toList();
+        return ResponseEntity.ok(Map.of("results", batchUploadService.upload(BatchSource.of(parts))));
+    }
+
+    @PostMapping(value = "/batch", consumes = "application/x-tar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, List<BatchUploadResult>>> uploadTar(InputStream data) throws Exception {
+        return ResponseEntity.ok(Map.of("results", batchUploadService.upload(new TarReader(data))));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> get(@PathVariable String id) {
-        byte[] resource = resourceService.getResource(id);
-        return ResponseEntity.ok()
+    public ResponseEntity<StreamingResponseBody> get(@PathVariable String id,
+                                                     @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                     @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                                     WebRequest request) {
+        Resource resource = resourceService.getResource(id);
+        if (request.checkNotModified(resourceService.eTag(resource))) {
+            return null;
+        }
+
+        ResourceRange resourceRange = resourceService.resolveRange(resource, range, ifRange);
+        ResponseEntity.BodyBuilder response = resourceRange.partial()
+                ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, resourceRange.contentRange())
+                : ResponseEntity.ok();
+        return response
                 .contentType(MediaType.valueOf("audio/mpeg"))
-                .body(resource);
+                .contentLength(resourceRange.length())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(out -> resourceService.transfer(resource, resourceRange, out));
     }
 
     @DeleteMapping
@@ -34,4 +78,9 @@ public class ResourceController {
         List<Long> list = resourceService.delete(ids);
         return ResponseEntity.ok(Map.of("ids", list));
     }
+
+    @PostMapping(value = "/delete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, List<Long>>> delete(@RequestBody DeleteRequest request) {
+        return ResponseEntity.ok(Map.of("ids", resourceService.delete(request.ids())));
+    }
 }
\ No newline at end of file
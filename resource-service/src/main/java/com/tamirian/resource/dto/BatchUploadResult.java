@@ -0,0 +1,25 @@
+package com.tamirian.resource.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchUploadResult(
+        String file,
+        Status status,
+        Long id,
+        Boolean metadataDelivered,
+        String error
+) {
+    public enum Status {
+        CREATED,
+        INVALID
+    }
+
+    public static BatchUploadResult created(String file, long id, boolean metadataDelivered) {
+        return new BatchUploadResult(file, Status.CREATED, id, metadataDelivered, null);
+    }
+
+    public static BatchUploadResult invalid(String file, String error) {
+        return new BatchUploadResult(file, Status.INVALID, null, null, error);
+    }
+}
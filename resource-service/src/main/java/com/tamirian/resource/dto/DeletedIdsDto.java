@@ -0,0 +1,7 @@
+package com.tamirian.resource.dto;
+
+import java.util.List;
+
+public record DeletedIdsDto(
+        List<Long> ids
+) {}
@@ -0,0 +1,20 @@
+package com.tamirian.resource.dto;
+
+public record ResourceRange(
+        long start,
+        long end,
+        long total,
+        boolean partial
+) {
+    public static ResourceRange full(long total) {
+        return new ResourceRange(0, total - 1, total, false);
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange() {
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+}
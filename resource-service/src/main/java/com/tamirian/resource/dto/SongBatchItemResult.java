@@ -0,0 +1,13 @@
+package com.tamirian.resource.dto;
+
+import java.util.Map;
+
+public record SongBatchItemResult(
+        String id,
+        String status,
+        Map<String, String> errors
+) {
+    public boolean stored() {
+        return "CREATED".equals(status) || "CONFLICT".equals(status);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tamirian.resource.exception;
+
+public class InvalidMp3Exception extends RuntimeException{
+    public InvalidMp3Exception(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tamirian.resource.exception;
+
+public class RangeNotSatisfiableException extends RuntimeException{
+    private final long size;
+
+    public RangeNotSatisfiableException(String message, long size) {
+        super(message);
+        this.size = size;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.tamirian.resource.exception;
+
+import java.time.Duration;
+
+public class SongServiceUnavailableException extends RuntimeException{
+    private final Duration retryAfter;
+
+    public SongServiceUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
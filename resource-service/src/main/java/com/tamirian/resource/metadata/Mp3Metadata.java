@@ -0,0 +1,9 @@
+package com.tamirian.resource.metadata;
+
+public record Mp3Metadata(
+        String title,
+        String artist,
+        String album,
+        String year,
+        long durationMillis
+) {}
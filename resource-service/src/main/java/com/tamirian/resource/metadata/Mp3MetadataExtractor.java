@@ -0,0 +1,293 @@
+package com.tamirian.resource.metadata;
+
+import com.tamirian.resource.exception.InvalidMp3Exception;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Reads the ID3v2 and ID3v1 tags and the first MPEG audio frame of an MP3 file
+ * without decoding the audio. Only the few bytes that matter are read from the
+ * channel: tag frame headers, the text frames we keep, the first frame and its
+ * Xing/Info or VBRI header, and the trailing ID3v1 block. Duration comes from
+ * the VBR frame count when present, otherwise from the CBR bitrate.
+ */
+@Component
+public class Mp3MetadataExtractor {
+
+    private static final int ID3V1_SIZE = 128;
+    private static final int SYNC_SCAN_LIMIT = 64 * 1024;
+    private static final int SYNC_SCAN_CHUNK = 4 * 1024;
+    private static final int MAX_TEXT_FRAME_SIZE = 4 * 1024;
+    private static final int MAX_UNSYNCHRONISED_TAG_SIZE = 1024 * 1024;
+    private static final int VBRI_OFFSET = 4 + 32;
+
+    private static final Map<String, Field> FRAMES = Map.ofEntries(
+            Map.entry("TIT2", Field.TITLE), Map.entry("TT2", Field.TITLE),
+            Map.entry("TPE1", Field.ARTIST), Map.entry("TP1", Field.ARTIST),
+            Map.entry("TALB", Field.ALBUM), Map.entry("TAL", Field.ALBUM),
+            Map.entry("TYER", Field.YEAR), Map.entry("TYE", Field.YEAR), Map.entry("TDRC", Field.YEAR)
+    );
+
+    private enum Field { TITLE, ARTIST, ALBUM, YEAR }
+
+    /**
+     * Checks the first bytes of a mark-supporting stream for an ID3v2 tag or an
+     * MPEG frame sync, leaving the stream where it was.
+     */
+    public boolean looksLikeMp3(InputStream in) throws IOException {
+        byte[] head = new byte[4];
+        in.mark(head.length);
+        int read;
+        try {
+            read = in.readNBytes(head, 0, head.length);
+        } finally {
+            in.reset();
+        }
+        if (read < head.length) return false;
+        if (head[0] == 'I' && head[1] == 'D' && head[2] == '3') return true;
+        return MpegFrameHeader.parse(head[0] & 0xFF, head[1] & 0xFF, head[2] & 0xFF, head[3] & 0xFF, 0) != null;
+    }
+
+    public Mp3Metadata extract(SeekableByteChannel channel) throws IOException {
+        long size = channel.size();
+        String[] tags = new String[Field.values().length];
+
+        long audioStart = readId3v2(channel, size, tags);
+        long audioEnd = readId3v1(channel, size, tags) ? size - ID3V1_SIZE : size;
+
+        MpegFrameHeader first = findFirstFrame(channel, audioStart, audioEnd);
+        return new Mp3Metadata(
+                tags[Field.TITLE.ordinal()],
+                tags[Field.ARTIST.ordinal()],
+                tags[Field.ALBUM.ordinal()],
+                tags[Field.YEAR.ordinal()],
+                durationMillis(channel, first, audioEnd)
+        );
+    }
+
+    private long readId3v2(SeekableByteChannel channel, long size, String[] tags) throws IOException {
+        ByteBuffer header = read(channel, 0, 10);
+        if (header.remaining() < 10 || header.get(0) != 'I' || header.get(1) != 'D' || header.get(2) != '3') {
+            return 0;
+        }
+
+        int major = header.get(3) & 0xFF;
+        int flags = header.get(5) & 0xFF;
+        long tagSize = synchsafe(header, 6);
+        long tagEnd = 10 + tagSize;
+        long audioStart = tagEnd + ((flags & 0x10) != 0 ? 10 : 0);
+        if (major < 2 || major > 4 || tagEnd > size) {
+            return Math.min(audioStart, size);
+        }
+
+        boolean unsynchronised = (flags & 0x80) != 0;
+        ByteBuffer tag = null;
+        if (unsynchronised && major < 4) {
+            if (tagSize > MAX_UNSYNCHRONISED_TAG_SIZE) return audioStart;
+            tag = resynchronise(read(channel, 10, (int) tagSize));
+        }
+
+        long position = 0;
+        if ((flags & 0x40) != 0) {
+            ByteBuffer extended = slice(channel, tag, position, 4);
+            position += major == 4 ? synchsafe(extended, 0) : (extended.getInt(0) & 0xFFFFFFFFL) + 4;
+        }
+
+        long framesEnd = tag != null ? tag.remaining() : tagSize;
+        int frameHeaderSize = major == 2 ? 6 : 10;
+        while (position + frameHeaderSize <= framesEnd) {
+            ByteBuffer frameHeader = slice(channel, tag, position, frameHeaderSize);
+            if (frameHeader.get(0) == 0) break;
+
+            String id;
+            long frameSize;
+            int frameFlags = 0;
+            if (major == 2) {
+                id = ascii(frameHeader, 3);
+                frameSize = ((frameHeader.get(3) & 0xFF) << 16) | ((frameHeader.get(4) & 0xFF) << 8) | (frameHeader.get(5) & 0xFF);
+            } else {
+                id = ascii(frameHeader, 4);
+                frameSize = major == 4 ? synchsafe(frameHeader, 4) : frameHeader.getInt(4) & 0xFFFFFFFFL;
+                frameFlags = frameHeader.get(9) & 0xFF;
+            }
+            position += frameHeaderSize;
+            if (frameSize <= 0 || position + frameSize > framesEnd) break;
+
+            Field field = FRAMES.get(id);
+            if (field != null && tags[field.ordinal()] == null && frameSize <= MAX_TEXT_FRAME_SIZE) {
+                int skip = 0;
+                boolean opaque = false;
+                boolean frameUnsynchronised = false;
+                if (major == 3) {
+                    opaque = (frameFlags & 0xC0) != 0;
+                    skip += (frameFlags & 0x20) != 0 ? 1 : 0;
+                } else if (major == 4) {
+                    opaque = (frameFlags & 0x0C) != 0;
+                    skip += (frameFlags & 0x40) != 0 ? 1 : 0;
+                    skip += (frameFlags & 0x01) != 0 ? 4 : 0;
+                    frameUnsynchronised = unsynchronised || (frameFlags & 0x02) != 0;
+                }
+                if (!opaque && skip < frameSize) {
+                    ByteBuffer content = slice(channel, tag, position + skip, (int) frameSize - skip);
+                    if (frameUnsynchronised) content = resynchronise(content);
+                    tags[field.ordinal()] = normalize(field, decodeText(content));
+                }
+            }
+            position += frameSize;
+        }
+        return audioStart;
+    }
+
+    private boolean readId3v1(SeekableByteChannel channel, long size, String[] tags) throws IOException {
+        if (size < ID3V1_SIZE) return false;
+        ByteBuffer tag = read(channel, size - ID3V1_SIZE, ID3V1_SIZE);
+        if (tag.remaining() < ID3V1_SIZE || tag.get(0) != 'T' || tag.get(1) != 'A' || tag.get(2) != 'G') {
+            return false;
+        }
+        fillIfMissing(tags, Field.TITLE, latin1(tag, 3, 30));
+        fillIfMissing(tags, Field.ARTIST, latin1(tag, 33, 30));
+        fillIfMissing(tags, Field.ALBUM, latin1(tag, 63, 30));
+        fillIfMissing(tags, Field.YEAR, latin1(tag, 93, 4));
+        return true;
+    }
+
+    private MpegFrameHeader findFirstFrame(SeekableByteChannel channel, long audioStart, long audioEnd) throws IOException {
+        long limit = Math.min(audioStart + SYNC_SCAN_LIMIT, audioEnd);
+        for (long windowStart = audioStart; windowStart + 4 <= limit; windowStart += SYNC_SCAN_CHUNK) {
+            ByteBuffer window = read(channel, windowStart, (int) Math.min(SYNC_SCAN_CHUNK + 3, limit - windowStart));
+            for (int i = 0; i + 4 <= window.remaining(); i++) {
+                if ((window.get(i) & 0xFF) != 0xFF) continue;
+                MpegFrameHeader header = headerAt(window, i, windowStart + i);
+                if (header != null && confirmedByNextFrame(channel, window, header, windowStart, audioEnd)) {
+                    return header;
+                }
+            }
+        }
+        throw new InvalidMp3Exception("No MPEG audio frame found");
+    }
+
+    private boolean confirmedByNextFrame(SeekableByteChannel channel, ByteBuffer window, MpegFrameHeader header,
+                                         long windowStart, long audioEnd) throws IOException {
+        long next = header.position() + header.length();
+        if (next + 4 > audioEnd) return true;
+        int offset = (int) (next - windowStart);
+        ByteBuffer bytes = offset + 4 <= window.remaining() ? window : read(channel, next, 4);
+        int index = bytes == window ? offset : 0;
+        return bytes.remaining() >= index + 4 && header.sameStream(headerAt(bytes, index, next));
+    }
+
+    private long durationMillis(SeekableByteChannel channel, MpegFrameHeader first, long audioEnd) throws IOException {
+        ByteBuffer frame = read(channel, first.position(), Math.max(first.length(), VBRI_OFFSET + 18));
+        int xing = first.xingOffset();
+        if (frame.remaining() >= xing + 12 && (matches(frame, xing, "Xing") || matches(frame, xing, "Info"))
+                && (frame.getInt(xing + 4) & 0x01) != 0) {
+            return first.durationMillis(frame.getInt(xing + 8) & 0xFFFFFFFFL);
+        }
+        if (frame.remaining() >= VBRI_OFFSET + 18 && matches(frame, VBRI_OFFSET, "VBRI")) {
+            return first.durationMillis(frame.getInt(VBRI_OFFSET + 14) & 0xFFFFFFFFL);
+        }
+        return (audioEnd - first.position()) * 8 / first.bitrateKbps();
+    }
+
+    private static MpegFrameHeader headerAt(ByteBuffer buffer, int index, long position) {
+        return MpegFrameHeader.parse(buffer.get(index) & 0xFF, buffer.get(index + 1) & 0xFF,
+                buffer.get(index + 2) & 0xFF, buffer.get(index + 3) & 0xFF, position);
+    }
+
+    /** The tag bytes at {@code position}, counted from the end of the tag header; all of them or none. */
+    private static ByteBuffer slice(SeekableByteChannel channel, ByteBuffer tag, long position, int length) throws IOException {
+        ByteBuffer bytes;
+        if (tag != null) {
+            if (position + length > tag.remaining()) throw new InvalidMp3Exception("ID3v2 tag is truncated");
+            bytes = tag.slice((int) position, length);
+        } else {
+            bytes = read(channel, 10 + position, length);
+        }
+        if (bytes.remaining() < length) throw new InvalidMp3Exception("ID3v2 tag is truncated");
+        return bytes;
+    }
+
+    private static ByteBuffer read(SeekableByteChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) <= 0) break;
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer resynchronise(ByteBuffer source) {
+        ByteBuffer target = ByteBuffer.allocate(source.remaining());
+        byte previous = 0;
+        while (source.hasRemaining()) {
+            byte b = source.get();
+            if (!(previous == (byte) 0xFF && b == 0)) {
+                target.put(b);
+            }
+            previous = b;
+        }
+        return target.flip();
+    }
+
+    private static String decodeText(ByteBuffer content) {
+        if (!content.hasRemaining()) return null;
+        Charset charset = switch (content.get()) {
+            case 1 -> StandardCharsets.UTF_16;
+            case 2 -> StandardCharsets.UTF_16BE;
+            case 3 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return trim(new String(bytes, charset));
+    }
+
+    private static String latin1(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return trim(new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    private static String trim(String value) {
+        int nul = value.indexOf('\0');
+        String trimmed = (nul >= 0 ? value.substring(0, nul) : value).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String normalize(Field field, String value) {
+        if (field == Field.YEAR && value != null && value.length() > 4) {
+            return value.substring(0, 4);
+        }
+        return value;
+    }
+
+    private static void fillIfMissing(String[] tags, Field field, String value) {
+        if (tags[field.ordinal()] == null) {
+            tags[field.ordinal()] = value;
+        }
+    }
+
+    private static boolean matches(ByteBuffer buffer, int offset, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            if (buffer.get(offset + i) != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static String ascii(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(0, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long synchsafe(ByteBuffer buffer, int offset) {
+        return ((buffer.get(offset) & 0x7FL) << 21) | ((buffer.get(offset + 1) & 0x7FL) << 14)
+                | ((buffer.get(offset + 2) & 0x7FL) << 7) | (buffer.get(offset + 3) & 0x7FL);
+    }
+}
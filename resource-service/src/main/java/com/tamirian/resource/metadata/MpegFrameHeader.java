@@ -0,0 +1,87 @@
+package com.tamirian.resource.metadata;
+
+record MpegFrameHeader(
+        int version,
+        int layer,
+        int bitrateKbps,
+        int sampleRate,
+        boolean mono,
+        int length,
+        int samplesPerFrame,
+        long position
+) {
+    static final int VERSION_2_5 = 0;
+    static final int VERSION_2 = 2;
+    static final int VERSION_1 = 3;
+
+    private static final int[][] BITRATES = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},
+            {},
+            {22050, 24000, 16000},
+            {44100, 48000, 32000}
+    };
+
+    /**
+     * Decodes the four header bytes starting at {@code b0}, or returns {@code null}
+     * when they do not form a valid, non-free-format MPEG audio frame header.
+     */
+    static MpegFrameHeader parse(int b0, int b1, int b2, int b3, long position) {
+        if (b0 != 0xFF || (b1 & 0xE0) != 0xE0) return null;
+
+        int version = (b1 >> 3) & 0x03;
+        int layerBits = (b1 >> 1) & 0x03;
+        int bitrateIndex = (b2 >> 4) & 0x0F;
+        int sampleRateIndex = (b2 >> 2) & 0x03;
+        if (version == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return null;
+        }
+
+        int layer = 4 - layerBits;
+        int bitrateRow = version == VERSION_1 ? layer - 1 : (layer == 1 ? 3 : 4);
+        int bitrate = BITRATES[bitrateRow][bitrateIndex];
+        int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+        int padding = (b2 >> 1) & 0x01;
+
+        int samplesPerFrame;
+        int length;
+        if (layer == 1) {
+            samplesPerFrame = 384;
+            length = (12 * bitrate * 1000 / sampleRate + padding) * 4;
+        } else if (layer == 3 && version != VERSION_1) {
+            samplesPerFrame = 576;
+            length = 72 * bitrate * 1000 / sampleRate + padding;
+        } else {
+            samplesPerFrame = 1152;
+            length = 144 * bitrate * 1000 / sampleRate + padding;
+        }
+
+        boolean mono = ((b3 >> 6) & 0x03) == 3;
+        return new MpegFrameHeader(version, layer, bitrate, sampleRate, mono, length, samplesPerFrame, position);
+    }
+
+    boolean sameStream(MpegFrameHeader other) {
+        return other != null && other.version == version && other.layer == layer && other.sampleRate == sampleRate;
+    }
+
+    /**
+     * Offset of the Xing/Info tag inside the first frame, right after the side information.
+     */
+    int xingOffset() {
+        if (version == VERSION_1) {
+            return 4 + (mono ? 17 : 32);
+        }
+        return 4 + (mono ? 9 : 17);
+    }
+
+    long durationMillis(long frames) {
+        return frames * samplesPerFrame * 1000L / sampleRate;
+    }
+}
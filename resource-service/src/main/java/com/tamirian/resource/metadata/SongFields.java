@@ -0,0 +1,29 @@
+package com.tamirian.resource.metadata;
+
+/** Normalises extracted tag values to what song-service accepts. */
+public final class SongFields {
+
+    private SongFields() {
+    }
+
+    public static String truncateOrDefault(String value, String defaultValue, int maxLength) {
+        value = (value == null || value.isBlank()) ? defaultValue : value;
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    public static String validateYear(String year) {
+        if (year != null && year.matches("^(19|20)\\d{2}$")) return year;
+        return "1900";
+    }
+
+    /**
+     * Formats a duration as song-service's {@code mm:ss}. That format stops at 59:59, so
+     * longer (or negative) durations come back as {@code null}, stored and sent as no
+     * duration rather than failing the row.
+     */
+    public static String formatDuration(long durationMillis) {
+        long seconds = durationMillis / 1000;
+        if (seconds < 0 || seconds >= 60 * 60) return null;
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tamirian.resource.metadata;
+
+import org.apache.tika.detect.Detector;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.metadata.XMPDM;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.mime.MimeTypes;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Tika path for files {@link Mp3MetadataExtractor} can't read: magic-byte detection
+ * against Tika's MIME registry and the MPEG parser, without the service-loaded
+ * {@code DefaultDetector}/{@code AutoDetectParser} chain. The registry is loaded on
+ * first use, which {@code MetadataWarmup} normally does before the instance takes traffic.
+ */
+@Component
+public class TikaMp3Fallback {
+
+    private static final MediaType AUDIO_MPEG = MediaType.audio("mpeg");
+
+    private final Parser parser = new Mp3Parser();
+    private volatile Detector detector;
+
+    /** Detects from the first bytes of a mark-supporting stream, leaving it where it was. */
+    public boolean isMp3(InputStream in) throws IOException {
+        return AUDIO_MPEG.equals(detector().detect(in, new Metadata()));
+    }
+
+    public Mp3Metadata parse(InputStream mp3) throws IOException, SAXException, TikaException {
+        Metadata metadata = new Metadata();
+        parser.parse(mp3, new BodyContentHandler(), metadata, new ParseContext());
+        return new Mp3Metadata(
+                metadata.get(TikaCoreProperties.TITLE),
+                metadata.get(XMPDM.ARTIST),
+                metadata.get(XMPDM.ALBUM),
+                metadata.get(XMPDM.RELEASE_DATE),
+                parseDurationMillis(metadata.get(XMPDM.DURATION))
+        );
+    }
+
+    private Detector detector() {
+        Detector loaded = detector;
+        if (loaded == null) {
+            loaded = MimeTypes.getDefaultMimeTypes();
+            detector = loaded;
+        }
+        return loaded;
+    }
+
+    private long parseDurationMillis(String durationStr) {
+        if (durationStr == null) return 0;
+        try {
+            return (long) (Double.parseDouble(durationStr) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.tamirian.resource.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * A resource deleted while its metadata was being delivered: song-service may have
+ * stored the metadata after the delete removed it, so it has to be removed again.
+ * Unlike an outbox row, it outlives the resource.
+ */
+@Entity
+@Table(name = "metadata_tombstone")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetadataTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
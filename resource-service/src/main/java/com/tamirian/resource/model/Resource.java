@@ -15,7 +15,12 @@ public class Resource {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Lob
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String location;
+
     @Column(nullable = false)
-    private byte[] data;
+    private Long size;
 }
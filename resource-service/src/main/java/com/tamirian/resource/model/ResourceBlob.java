@@ -0,0 +1,35 @@
+package com.tamirian.resource.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "resource_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String location;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    private String name;
+
+    private String artist;
+
+    private String album;
+
+    private String duration;
+
+    private String year;
+}
@@ -0,0 +1,49 @@
+package com.tamirian.resource.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the phases of an operation into {@code <operation>.phase}, tagged with the
+ * phase, and records how many bytes the phase handled into {@code <operation>.phase.bytes}.
+ * Meters are created on first use and then only looked up, so a phase costs two
+ * {@code nanoTime} reads and a map hit. Phases run back to back, so each call returns
+ * its end time to be used as the start of the next one.
+ */
+@Component
+public class PhaseMetrics {
+
+    private record Key(String operation, String phase) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public PhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long record(String operation, String phase, long startNanos) {
+        long end = System.nanoTime();
+        timers.computeIfAbsent(new Key(operation, phase), key -> Timer.builder(key.operation() + ".phase")
+                        .tag("phase", key.phase())
+                        .register(meterRegistry))
+                .record(end - startNanos, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    public long record(String operation, String phase, long startNanos, long bytes) {
+        long end = record(operation, phase, startNanos);
+        sizes.computeIfAbsent(new Key(operation, phase), key -> DistributionSummary.builder(key.operation() + ".phase.bytes")
+                        .tag("phase", key.phase())
+                        .baseUnit("bytes")
+                        .register(meterRegistry))
+                .record(bytes);
+        return end;
+    }
+}
@@ -0,0 +1,260 @@
+package com.tamirian.resource.pipeline;
+
+import com.tamirian.resource.client.SongServiceClient;
+import com.tamirian.resource.dto.SongBatchItemResult;
+import com.tamirian.resource.dto.SongMetadataDto;
+import com.tamirian.resource.model.MetadataOutbox;
+import com.tamirian.resource.model.MetadataTombstone;
+import com.tamirian.resource.observability.PhaseMetrics;
+import com.tamirian.resource.repository.MetadataOutboxRepository;
+import com.tamirian.resource.repository.MetadataTombstoneRepository;
+import com.tamirian.resource.service.ResolvedMetadata;
+import com.tamirian.resource.service.ResourceService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the metadata outbox written by uploads. Due rows are claimed in batches
+ * with {@code FOR UPDATE SKIP LOCKED}, leased by pushing their next attempt into the
+ * future, and handed to a bounded worker pool that extracts the metadata and
+ * delivers each batch to song-service in a single call. Failures are retried with exponential backoff
+ * until {@code max-attempts} is reached. Tombstones, left by resources deleted while
+ * their metadata was in flight, are drained the same way with delete calls.
+ */
+@Slf4j
+@Component
+public class MetadataPipeline {
+
+    private final MetadataOutboxRepository outboxRepository;
+    private final MetadataTombstoneRepository tombstoneRepository;
+    private final ResourceService resourceService;
+    private final SongServiceClient songServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final PhaseMetrics phaseMetrics;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong tombstones = new AtomicLong();
+    private final Counter delivered;
+    private final Counter retried;
+
+    public MetadataPipeline(MetadataOutboxRepository outboxRepository,
+                            MetadataTombstoneRepository tombstoneRepository,
+                            ResourceService resourceService,
+                            SongServiceClient songServiceClient,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            PhaseMetrics phaseMetrics,
+                            @Value("${resource.metadata.pipeline.workers:4}") int workerCount,
+                            @Value("${resource.metadata.pipeline.queue-capacity:8}") int queueCapacity,
+                            @Value("${resource.metadata.pipeline.batch-size:50}") int batchSize,
+                            @Value("${resource.metadata.pipeline.max-attempts:10}") int maxAttempts,
+                            @Value("${resource.metadata.pipeline.lease:60s}") Duration lease,
+                            @Value("${resource.metadata.pipeline.initial-backoff:1s}") Duration initialBackoff,
+                            @Value("${resource.metadata.pipeline.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.resourceService = resourceService;
+        this.songServiceClient = songServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.phaseMetrics = phaseMetrics;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "metadata-" + threads.incrementAndGet()));
+        ExecutorServiceMetrics.monitor(meterRegistry, workers, "metadata-pipeline");
+
+        Gauge.builder("resource.metadata.outbox.depth", depth, AtomicLong::get)
+                .description("Outbox rows waiting for metadata delivery")
+                .register(meterRegistry);
+        TimeGauge.builder("resource.metadata.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox row")
+                .register(meterRegistry);
+        Gauge.builder("resource.metadata.outbox.exhausted", exhausted, AtomicLong::get)
+                .description("Outbox rows that ran out of delivery attempts")
+                .register(meterRegistry);
+        Gauge.builder("resource.metadata.tombstones", tombstones, AtomicLong::get)
+                .description("Deleted resources whose metadata still has to be removed from song-service")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("resource.metadata.delivered").register(meterRegistry);
+        this.retried = Counter.builder("resource.metadata.retried").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${resource.metadata.pipeline.poll-interval:500ms}")
+    public void poll() {
+        refreshBacklog();
+        if (workers.getQueue().remainingCapacity() > 0) {
+            List<MetadataTombstone> deleted = claimTombstones();
+            if (!deleted.isEmpty()) workers.execute(() -> purge(deleted));
+        }
+        while (workers.getQueue().remainingCapacity() > 0) {
+            List<MetadataOutbox> batch = claim();
+            if (batch.isEmpty()) return;
+            workers.execute(() -> process(batch));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private List<MetadataOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            List<MetadataOutbox> due = outboxRepository.lockDue(batchSize, maxAttempts);
+            Instant leasedUntil = Instant.now().plus(lease);
+            due.forEach(entry -> entry.setNextAttemptAt(leasedUntil));
+            return due;
+        });
+    }
+
+    private List<MetadataTombstone> claimTombstones() {
+        return transactionTemplate.execute(status -> {
+            List<MetadataTombstone> due = tombstoneRepository.lockDue(batchSize, maxAttempts);
+            Instant leasedUntil = Instant.now().plus(lease);
+            due.forEach(tombstone -> tombstone.setNextAttemptAt(leasedUntil));
+            return due;
+        });
+    }
+
+    private void process(List<MetadataOutbox> batch) {
+        List<MetadataOutbox> pending = new ArrayList<>(batch.size());
+        List<SongMetadataDto> metadata = new ArrayList<>(batch.size());
+        long bytes = 0;
+        for (MetadataOutbox entry : batch) {
+            try {
+                Optional<ResolvedMetadata> resolved = resourceService.resolveMetadata(entry.getResourceId());
+                if (resolved.isPresent()) {
+                    pending.add(entry);
+                    metadata.add(resolved.get().metadata());
+                    bytes += resolved.get().blobSize();
+                } else {
+                    complete(entry, false);
+                }
+            } catch (Exception e) {
+                reschedule(entry, e);
+            }
+        }
+        if (pending.isEmpty()) return;
+
+        List<SongBatchItemResult> results;
+        long start = System.nanoTime();
+        try {
+            results = songServiceClient.sendMetadata(metadata);
+            phaseMetrics.record("resource.metadata", "send", start, bytes);
+        } catch (Exception e) {
+            pending.forEach(entry -> reschedule(entry, e));
+            return;
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            SongBatchItemResult result = results.get(i);
+            if (result.stored()) {
+                complete(pending.get(i), true);
+            } else {
+                reschedule(pending.get(i), new IllegalStateException(
+                        "Song Service rejected metadata: " + result.status() + " " + result.errors()));
+            }
+        }
+    }
+
+    private void complete(MetadataOutbox entry, boolean sent) {
+        Integer removed = transactionTemplate.execute(status -> {
+            int count = outboxRepository.deleteEntry(entry.getId());
+            if (sent && count == 0) {
+                // the resource was deleted while its metadata was in flight
+                Instant now = Instant.now();
+                tombstoneRepository.save(new MetadataTombstone(null, entry.getResourceId(), 0, now, now, null));
+            }
+            return count;
+        });
+        if (sent && removed != null && removed > 0) {
+            delivered.increment();
+        }
+    }
+
+    private void purge(List<MetadataTombstone> batch) {
+        try {
+            songServiceClient.deleteMetadata(batch.stream().map(MetadataTombstone::getResourceId).toList());
+        } catch (Exception e) {
+            retried.increment();
+            Instant now = Instant.now();
+            for (MetadataTombstone tombstone : batch) {
+                tombstone.setAttempts(tombstone.getAttempts() + 1);
+                tombstone.setNextAttemptAt(now.plus(backoff(tombstone.getAttempts())));
+                tombstone.setLastError(truncate(String.valueOf(e.getMessage())));
+            }
+            transactionTemplate.executeWithoutResult(status -> tombstoneRepository.saveAll(batch));
+            log.warn("Removing metadata of {} deleted resources failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> tombstoneRepository.deleteAllInBatch(batch));
+    }
+
+    private void reschedule(MetadataOutbox entry, Exception error) {
+        retried.increment();
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(entry.getId()).ifPresent(current -> {
+            int attempts = current.getAttempts() + 1;
+            current.setAttempts(attempts);
+            current.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+            current.setLastError(truncate(String.valueOf(error.getMessage())));
+            if (attempts >= maxAttempts) {
+                log.error("Giving up on metadata for resource {} after {} attempts", current.getResourceId(), attempts, error);
+            } else {
+                log.warn("Metadata delivery for resource {} failed (attempt {}): {}",
+                        current.getResourceId(), attempts, error.getMessage());
+            }
+        }));
+    }
+
+    private void refreshBacklog() {
+        MetadataOutboxRepository.Backlog backlog = outboxRepository.backlog(maxAttempts);
+        depth.set(backlog.getDepth());
+        lagMillis.set(backlog.getOldest() == null ? 0 : Duration.between(backlog.getOldest(), Instant.now()).toMillis());
+        exhausted.set(outboxRepository.countExhausted(maxAttempts));
+        tombstones.set(tombstoneRepository.countPending(maxAttempts));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tamirian.resource.repository;
+
+import com.tamirian.resource.model.Resource;
+import com.tamirian.resource.model.ResourceBlob;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Set-based statements for batch uploads, bypassing JPA so that rows go out in JDBC
+ * batches: {@code Resource} IDs come from an IDENTITY column, which keeps Hibernate
+ * from batching, so the batch path draws a block of values from the same sequence in
+ * one round trip and inserts with explicit IDs.
+ */
+@Repository
+public class BatchUploadRepository {
+
+    private static final String LOCK_BLOBS =
+            "SELECT count(pg_advisory_xact_lock(hashtextextended(h, 0))) FROM unnest(?::text[]) AS h";
+
+    private static final String ALLOCATE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('resource', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_BLOB = """
+            INSERT INTO resource_blob (hash, location, size, ref_count, name, artist, album, duration, year)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_RESOURCE =
+            "INSERT INTO resource (id, content_hash, location, size) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX = """
+            INSERT INTO metadata_outbox (resource_id, attempts, created_at, next_attempt_at)
+            VALUES (?, 0, ?, ?)""";
+
+    private static final String DELETE_OUTBOX =
+            "DELETE FROM metadata_outbox WHERE resource_id = ANY(?) RETURNING resource_id";
+
+    private static final String INSERT_TOMBSTONES = """
+            INSERT INTO metadata_tombstone (resource_id, attempts, created_at, next_attempt_at)
+            SELECT id, 0, now(), now() FROM unnest(?) AS id""";
+
+    private static final String RELEASE_OUTBOX =
+            "UPDATE metadata_outbox SET next_attempt_at = now() WHERE resource_id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BatchUploadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Takes the per-hash upload locks in the order given; callers pass them sorted. */
+    public void lockBlobs(List<String> sortedHashes) {
+        jdbcTemplate.query(LOCK_BLOBS, ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", sortedHashes.toArray())),
+                rs -> null);
+    }
+
+    public long[] allocateResourceIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, count).stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    public void insertBlobs(List<ResourceBlob> blobs) {
+        jdbcTemplate.batchUpdate(INSERT_BLOB, blobs, blobs.size(), (ps, blob) -> {
+            ps.setString(1, blob.getHash());
+            ps.setString(2, blob.getLocation());
+            ps.setLong(3, blob.getSize());
+            ps.setInt(4, blob.getRefCount());
+            ps.setString(5, blob.getName());
+            ps.setString(6, blob.getArtist());
+            ps.setString(7, blob.getAlbum());
+            ps.setString(8, blob.getDuration());
+            ps.setString(9, blob.getYear());
+        });
+    }
+
+    public void insertResources(List<Resource> resources) {
+        jdbcTemplate.batchUpdate(INSERT_RESOURCE, resources, resources.size(), (ps, resource) -> {
+            ps.setLong(1, resource.getId());
+            ps.setString(2, resource.getContentHash());
+            ps.setString(3, resource.getLocation());
+            ps.setLong(4, resource.getSize());
+        });
+    }
+
+    public void insertOutbox(List<Long> resourceIds, Instant createdAt, Instant nextAttemptAt) {
+        OffsetDateTime created = OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC);
+        OffsetDateTime next = OffsetDateTime.ofInstant(nextAttemptAt, ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, resourceIds, resourceIds.size(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setObject(2, created);
+            ps.setObject(3, next);
+        });
+    }
+
+    /** Removes the outbox rows of delivered resources; returns the resource IDs that still had one. */
+    public List<Long> deleteOutbox(List<Long> resourceIds) {
+        return jdbcTemplate.query(DELETE_OUTBOX, ps -> ps.setArray(1, bigints(ps.getConnection(), resourceIds)),
+                (rs, row) -> rs.getLong(1));
+    }
+
+    /** Leaves tombstones for resources deleted while their metadata was being delivered. */
+    public void insertTombstones(List<Long> resourceIds) {
+        if (resourceIds.isEmpty()) return;
+        jdbcTemplate.update(INSERT_TOMBSTONES, ps -> ps.setArray(1, bigints(ps.getConnection(), resourceIds)));
+    }
+
+    /** Makes the outbox rows due now, handing their delivery back to the pipeline. */
+    public void releaseOutbox(List<Long> resourceIds) {
+        if (resourceIds.isEmpty()) return;
+        jdbcTemplate.update(RELEASE_OUTBOX, ps -> ps.setArray(1, bigints(ps.getConnection(), resourceIds)));
+    }
+
+    private static Array bigints(Connection connection, List<Long> ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids.toArray());
+    }
+}
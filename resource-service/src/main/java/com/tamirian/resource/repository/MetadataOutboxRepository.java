@@ -0,0 +1,37 @@
+package com.tamirian.resource.repository;
+
+import com.tamirian.resource.model.MetadataOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MetadataOutboxRepository extends JpaRepository<MetadataOutbox, Long> {
+
+    interface Backlog {
+        long getDepth();
+
+        Instant getOldest();
+    }
+
+    @Query(value = """
+            SELECT * FROM metadata_outbox
+            WHERE next_attempt_at <= now() AND attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<MetadataOutbox> lockDue(int limit, int maxAttempts);
+
+    @Query("SELECT COUNT(o) AS depth, MIN(o.createdAt) AS oldest FROM MetadataOutbox o WHERE o.attempts < :maxAttempts")
+    Backlog backlog(int maxAttempts);
+
+    @Query("SELECT COUNT(o) FROM MetadataOutbox o WHERE o.attempts >= :maxAttempts")
+    long countExhausted(int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM MetadataOutbox o WHERE o.id = :id")
+    int deleteEntry(Long id);
+}
@@ -0,0 +1,22 @@
+package com.tamirian.resource.repository;
+
+import com.tamirian.resource.model.MetadataTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface MetadataTombstoneRepository extends JpaRepository<MetadataTombstone, Long> {
+
+    @Query(value = """
+            SELECT * FROM metadata_tombstone
+            WHERE next_attempt_at <= now() AND attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<MetadataTombstone> lockDue(int limit, int maxAttempts);
+
+    @Query("SELECT COUNT(t) FROM MetadataTombstone t WHERE t.attempts < :maxAttempts")
+    long countPending(int maxAttempts);
+}
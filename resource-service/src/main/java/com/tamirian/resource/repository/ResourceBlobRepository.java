@@ -0,0 +1,12 @@
+package com.tamirian.resource.repository;
+
+import com.tamirian.resource.model.ResourceBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResourceBlobRepository extends JpaRepository<ResourceBlob, String> {
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(:hash, 0))", nativeQuery = true)
+    Integer lock(String hash);
+}
@@ -2,8 +2,28 @@ package com.tamirian.resource.repository;
 
 import com.tamirian.resource.model.Resource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
-public interface ResourceRepository extends JpaRepository<Resource, Long> {}
+public interface ResourceRepository extends JpaRepository<Resource, Long> {
 
+    interface ResourceRef {
+        Long getId();
+
+        String getContentHash();
+    }
+
+    @Query(value = """
+            SELECT id, content_hash AS "contentHash" FROM resource
+            WHERE id = ANY(:ids)
+            ORDER BY id
+            FOR UPDATE""", nativeQuery = true)
+    List<ResourceRef> lockRefs(Long[] ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM resource WHERE id = ANY(:ids)", nativeQuery = true)
+    int deleteByIds(Long[] ids);
+}
@@ -0,0 +1,60 @@
+package com.tamirian.resource.service;
+
+import com.tamirian.resource.repository.ResourceBlobRepository;
+import com.tamirian.resource.storage.BlobStore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes blob files that are no longer referenced by a {@code resource_blob} row.
+ * The check runs in its own transaction under the same per-hash lock that uploads
+ * take, so a file is never removed while a concurrent upload is re-adding it.
+ */
+@Component
+public class BlobReclaimer {
+
+    private final ResourceBlobRepository blobRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public BlobReclaimer(ResourceBlobRepository blobRepository, BlobStore blobStore,
+                         PlatformTransactionManager transactionManager) {
+        this.blobRepository = blobRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void reclaimOnRollback(String hash, String location) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reclaim(hash, location);
+                }
+            }
+        });
+    }
+
+    public void reclaimOnCommit(String hash, String location) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reclaim(hash, location);
+            }
+        });
+    }
+
+    private void reclaim(String hash, String location) {
+        transactionTemplate.executeWithoutResult(status -> {
+            blobRepository.lock(hash);
+            if (!blobRepository.existsById(hash)) {
+                blobStore.delete(location);
+            }
+        });
+    }
+}
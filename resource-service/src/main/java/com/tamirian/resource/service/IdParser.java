@@ -0,0 +1,43 @@
+package com.tamirian.resource.service;
+
+import com.tamirian.resource.exception.BadRequestException;
+import java.util.Arrays;
+import java.util.List;
+
+/** Parses resource IDs from path variables and {@code id=1,2,3} query parameters. */
+public final class IdParser {
+
+    private static final int MAX_CSV_LENGTH = 200;
+
+    private IdParser() {
+    }
+
+    public static Long parsePositiveId(String idStr) {
+        try {
+            if (idStr.contains(".")) throw new NumberFormatException();
+            long id = Long.parseLong(idStr);
+            if (id <= 0) throw new NumberFormatException();
+            return id;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid ID format: '" + idStr + "'. Must be positive integer");
+        }
+    }
+
+    public static List<Long> parseCsvIds(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new BadRequestException("CSV string must not be empty");
+        }
+        if (csv.length() > MAX_CSV_LENGTH) {
+            throw new BadRequestException(
+                    "CSV string is too long: received " + csv.length() + " characters, maximum allowed is " + MAX_CSV_LENGTH
+            );
+        }
+
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(IdParser::parsePositiveId)
+                .distinct()
+                .toList();
+    }
+}
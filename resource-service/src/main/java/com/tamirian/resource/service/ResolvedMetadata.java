@@ -0,0 +1,9 @@
+package com.tamirian.resource.service;
+
+import com.tamirian.resource.dto.SongMetadataDto;
+
+/** Song metadata of a resource, with the size of the blob it was read from. */
+public record ResolvedMetadata(
+        SongMetadataDto metadata,
+        long blobSize
+) {}
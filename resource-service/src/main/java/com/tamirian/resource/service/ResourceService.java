@@ -1,179 +1,343 @@
 package com.tamirian.resource.service;
 
+import com.tamirian.resource.cache.ResourceCache;
+import com.tamirian.resource.client.SongServiceClient;
+import com.tamirian.resource.dto.ResourceRange;
 import com.tamirian.resource.dto.SongMetadataDto;
 import com.tamirian.resource.exception.BadRequestException;
+import com.tamirian.resource.exception.RangeNotSatisfiableException;
 import com.tamirian.resource.exception.ResourceNotFoundException;
+import com.tamirian.resource.metadata.Mp3Metadata;
+import com.tamirian.resource.metadata.Mp3MetadataExtractor;
+import com.tamirian.resource.metadata.SongFields;
+import com.tamirian.resource.metadata.TikaMp3Fallback;
+import com.tamirian.resource.model.MetadataOutbox;
 import com.tamirian.resource.model.Resource;
+import com.tamirian.resource.model.ResourceBlob;
+import com.tamirian.resource.observability.PhaseMetrics;
+import com.tamirian.resource.repository.MetadataOutboxRepository;
+import com.tamirian.resource.repository.ResourceBlobRepository;
 import com.tamirian.resource.repository.ResourceRepository;
-import jakarta.transaction.Transactional;
+import com.tamirian.resource.storage.BlobStore;
+import com.tamirian.resource.storage.BlobWriter;
+import com.tamirian.resource.storage.SpoolingInputStream;
+import com.tamirian.resource.storage.StoredBlob;
 import lombok.RequiredArgsConstructor;
-import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.metadata.TikaCoreProperties;
-import org.apache.tika.metadata.XMPDM;
-import org.apache.tika.parser.Parser;
-import org.apache.tika.parser.mp3.Mp3Parser;
-import org.apache.tika.sax.BodyContentHandler;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.xml.sax.SAXException;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ResourceService {
 
-    private final Tika tika = new Tika();
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
     private final ResourceRepository repository;
-    private final RestTemplate restTemplate;
+    private final ResourceBlobRepository blobRepository;
+    private final MetadataOutboxRepository outboxRepository;
+    private final SongServiceClient songServiceClient;
+    private final BlobStore blobStore;
+    private final BlobReclaimer blobReclaimer;
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final TikaMp3Fallback tikaFallback;
+    private final TransactionTemplate transactionTemplate;
+    private final PhaseMetrics phaseMetrics;
+    private final ResourceCache resourceCache;
+
+    @Value("${resource.delete.chunk-size:1000}")
+    private int deleteChunkSize;
 
-    @Value("${SONG_SERVICE_URL:http://song-service/songs}")
-    private String songServiceUrl;
+    @Value("${resource.delete.max-ids:100000}")
+    private int maxDeleteIds;
 
-    @Transactional
-    public Long upload(byte[] mp3) throws IOException, SAXException, TikaException {
-        validateMp3(mp3);
-        Resource resource = repository.save(createResource(mp3));
-        SongMetadataDto metadata = extractMetadata(mp3, resource.getId());
-        return sendMetadata(metadata);
+    /**
+     * Spools, validates and hashes the body outside any transaction, so a slow client
+     * never holds a database connection; only storing the blob and inserting the
+     * resource and outbox rows run in one short transaction. If it fails, the spooled
+     * file goes too: the writer deletes it on close, or the reclaimer once it was moved
+     * into the store.
+     */
+    public Long upload(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        try (BlobWriter writer = blobStore.newWriter();
+             InputStream mp3 = new BufferedInputStream(new SpoolingInputStream(body, writer), READ_BUFFER_SIZE)) {
+            validateMp3(mp3);
+            start = phaseMetrics.record("resource.upload", "validate", start, writer.size());
+            mp3.transferTo(OutputStream.nullOutputStream());
+            writer.finish();
+            start = phaseMetrics.record("resource.upload", "spool", start, writer.size());
+
+            long[] phaseStart = {start};
+            Resource resource;
+            try {
+                resource = transactionTemplate.execute(status -> {
+                    ResourceBlob blob = referenceBlob(writer);
+                    phaseStart[0] = phaseMetrics.record("resource.upload", "store", phaseStart[0], blob.getSize());
+                    Resource saved = repository.save(createResource(blob));
+                    outboxRepository.save(createOutboxEntry(saved));
+                    return saved;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            phaseMetrics.record("resource.upload", "save", phaseStart[0], resource.getSize());
+            return resource.getId();
+        }
     }
 
-    public byte[] getResource(String idStr) {
-        Long id = parsePositiveId(idStr);
-        return repository.findById(id)
-                .map(Resource::getData)
+    public Resource getResource(String idStr) {
+        Long id = IdParser.parsePositiveId(idStr);
+        return resourceCache.get(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Resource with ID " + id + " not found"));
     }
 
-    @Transactional
-    public List<Long> delete(String csv) {
-        List<Long> ids = parseCsvIds(csv);
-        if (ids.isEmpty()) return Collections.emptyList();
-
-        List<Long> existingIds = repository.findAllById(ids).stream()
-                .map(Resource::getId)
-                .toList();
+    public String eTag(Resource resource) {
+        return "\"" + resource.getContentHash() + "\"";
+    }
 
-        if (existingIds.isEmpty()) return Collections.emptyList();
+    public ResourceRange resolveRange(Resource resource, String rangeHeader, String ifRange) {
+        long size = resource.getSize();
+        if (rangeHeader == null || (ifRange != null && !ifRange.equals(eTag(resource)))) {
+            return ResourceRange.full(size);
+        }
 
-        deleteFromSongService(csv);
-        repository.deleteAllById(existingIds);
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            throw new RangeNotSatisfiableException("Invalid range: '" + rangeHeader + "'", size);
+        }
+        if (ranges.size() != 1) {
+            return ResourceRange.full(size);
+        }
 
-        return existingIds;
+        HttpRange range = ranges.get(0);
+        long start = range.getRangeStart(size);
+        long end = range.getRangeEnd(size);
+        if (start >= size || start > end) {
+            throw new RangeNotSatisfiableException(
+                    "Range '" + rangeHeader + "' is outside of resource size " + size, size
+            );
+        }
+        return new ResourceRange(start, end, size, true);
     }
 
-    public SongMetadataDto extractMetadata(byte[] mp3, Long resourceId) throws IOException, SAXException, TikaException {
-        Metadata metadata = new Metadata();
-        BodyContentHandler handler = new BodyContentHandler();
-        Parser parser = new Mp3Parser();
-        try (InputStream input = new ByteArrayInputStream(mp3)) {
-            parser.parse(input, handler, metadata, new org.apache.tika.parser.ParseContext());
+    public void transfer(Resource resource, ResourceRange range, OutputStream out) throws IOException {
+        if (range.length() > 0) {
+            blobStore.copyTo(resource.getLocation(), range.start(), range.length(), out);
         }
+    }
 
-        return new SongMetadataDto(
-                resourceId.toString(),
-                truncateOrDefault(metadata.get(TikaCoreProperties.TITLE), "Unknown Title", 100),
-                truncateOrDefault(metadata.get(XMPDM.ARTIST), "Unknown Artist", 100),
-                truncateOrDefault(metadata.get(XMPDM.ALBUM), "Unknown Album", 100),
-                formatDuration(metadata.get(XMPDM.DURATION)),
-                validateYear(metadata.get(XMPDM.RELEASE_DATE))
-        );
+    public List<Long> delete(String csv) {
+        return delete(IdParser.parseCsvIds(csv));
     }
 
-    private void validateMp3(byte[] mp3) {
-        if (!"audio/mpeg".equalsIgnoreCase(tika.detect(mp3))) {
-            throw new BadRequestException("Invalid MP3 file");
+    /**
+     * Deletes in chunks, each in its own transaction: the existing rows are locked
+     * through a projection, their metadata is removed from song-service in one call,
+     * and the rows go in a single {@code DELETE ... WHERE id = ANY(?)}. A failing chunk
+     * rolls back alone; the chunks before it stay deleted.
+     */
+    public List<Long> delete(List<Long> ids) {
+        if (ids == null) {
+            throw new BadRequestException("IDs must not be empty");
+        }
+        if (ids.size() > maxDeleteIds) {
+            throw new BadRequestException(
+                    "Too many IDs: received " + ids.size() + ", maximum allowed is " + maxDeleteIds
+            );
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        for (Long id : distinct) {
+            if (id == null || id <= 0) {
+                throw new BadRequestException("Invalid ID: '" + id + "'. Must be positive integer");
+            }
         }
-    }
 
-    private Resource createResource(byte[] mp3) {
-        Resource resource = new Resource();
-        resource.setData(mp3);
-        return resource;
+        List<Long> deleted = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += deleteChunkSize) {
+            Long[] chunk = distinct.subList(from, Math.min(from + deleteChunkSize, distinct.size())).toArray(Long[]::new);
+            deleted.addAll(transactionTemplate.execute(status -> deleteChunk(chunk)));
+        }
+        return deleted;
     }
 
-    private Long sendMetadata(SongMetadataDto metadata) {
-        HttpEntity<SongMetadataDto> entity = new HttpEntity<>(metadata, createJsonHeaders());
-        ResponseEntity<Map<String, Integer>> response = restTemplate.exchange(
-                songServiceUrl, HttpMethod.POST, entity, new ParameterizedTypeReference<>() {}
-        );
-        Map<String, Integer> body = response.getBody();
-        if (body == null || !body.containsKey("id")) {
-            throw new RuntimeException("Song Service returned invalid response");
+    /**
+     * Builds the song metadata for a resource, extracting it from the blob on first use.
+     * Returns empty when the resource has been deleted in the meantime. The file is read
+     * and parsed between two short transactions, so a pipeline worker holds no connection
+     * while it does I/O; the fields are stored under the blob lock, only if no one else
+     * has stored them yet.
+     */
+    public Optional<ResolvedMetadata> resolveMetadata(Long resourceId) throws IOException, SAXException, TikaException {
+        ResourceBlob blob = transactionTemplate.execute(status -> repository.findById(resourceId)
+                .map(resource -> blobRepository.findById(resource.getContentHash())
+                        .orElseThrow(() -> new IllegalStateException("Blob of resource " + resourceId + " is missing")))
+                .orElse(null));
+        if (blob == null) return Optional.empty();
+
+        if (blob.getName() == null) {
+            long start = System.nanoTime();
+            Mp3Metadata metadata;
+            try (SeekableByteChannel mp3 = blobStore.openChannel(blob.getLocation())) {
+                metadata = readMetadata(mp3);
+            }
+            phaseMetrics.record("resource.metadata", "extract", start, blob.getSize());
+            applyMetadata(blob, metadata);
+            transactionTemplate.executeWithoutResult(status -> {
+                blobRepository.lock(blob.getHash());
+                blobRepository.findById(blob.getHash())
+                        .filter(current -> current.getName() == null)
+                        .ifPresent(current -> applyMetadata(current, metadata));
+            });
         }
-        return body.get("id").longValue();
+        return Optional.of(new ResolvedMetadata(toSongMetadata(blob, resourceId), blob.getSize()));
     }
 
-    private void deleteFromSongService(String csv) {
-        HttpEntity<Void> entity = new HttpEntity<>(createJsonHeaders());
-        ResponseEntity<Map> response = restTemplate.exchange(
-                songServiceUrl + "?id=" + csv, HttpMethod.DELETE, entity, Map.class
-        );
-        Map<String, List<Long>> body = response.getBody();
-        if (body == null || !body.containsKey("ids")) {
-            throw new RuntimeException("Song Service returned invalid response");
-        }
+    public SongMetadataDto extractMetadata(SeekableByteChannel mp3, Long resourceId) throws IOException, SAXException, TikaException {
+        ResourceBlob blob = new ResourceBlob();
+        extractInto(blob, mp3);
+        return toSongMetadata(blob, resourceId);
     }
 
-    private HttpHeaders createJsonHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        return headers;
+    /** Fills the song fields of a blob row from the MP3, normalised the way they are stored. */
+    public void extractInto(ResourceBlob blob, SeekableByteChannel mp3) throws IOException, SAXException, TikaException {
+        applyMetadata(blob, readMetadata(mp3));
     }
 
-    private Long parsePositiveId(String idStr) {
-        try {
-            if (idStr.contains(".")) throw new NumberFormatException();
-            long id = Long.parseLong(idStr);
-            if (id <= 0) throw new NumberFormatException();
-            return id;
-        } catch (NumberFormatException e) {
-            throw new BadRequestException("Invalid ID format: '" + idStr + "'. Must be positive integer");
+    /** Sniffs a mark-supporting stream for MP3 content, leaving it where it was. */
+    public void validateMp3(InputStream mp3) throws IOException {
+        if (!metadataExtractor.looksLikeMp3(mp3) && !tikaFallback.isMp3(mp3)) {
+            throw new BadRequestException("Invalid MP3 file");
         }
     }
 
-    private List<Long> parseCsvIds(String csv) {
-        if (csv == null || csv.isBlank()) {
-            throw new BadRequestException("CSV string must not be empty");
+    private ResourceBlob referenceBlob(BlobWriter writer) {
+        String hash = writer.hash();
+        blobRepository.lock(hash);
+        Optional<ResourceBlob> existing = blobRepository.findById(hash);
+        if (existing.isPresent()) {
+            ResourceBlob blob = existing.get();
+            blob.setRefCount(blob.getRefCount() + 1);
+            return blob;
         }
-        if (csv.length() > 200) {
-            throw new BadRequestException(
-                    "CSV string is too long: received " + csv.length() + " characters, maximum allowed is 200"
-            );
+
+        StoredBlob stored;
+        try {
+            stored = writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        blobReclaimer.reclaimOnRollback(stored.hash(), stored.location());
+        ResourceBlob blob = new ResourceBlob();
+        blob.setHash(stored.hash());
+        blob.setLocation(stored.location());
+        blob.setSize(stored.size());
+        blob.setRefCount(1);
+        return blobRepository.saveAndFlush(blob);
+    }
+
+    private List<Long> deleteChunk(Long[] ids) {
+        long start = System.nanoTime();
+        List<ResourceRepository.ResourceRef> existing = repository.lockRefs(ids);
+        start = phaseMetrics.record("resource.delete", "lock", start);
+        if (existing.isEmpty()) return Collections.emptyList();
 
-        return Arrays.stream(csv.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(this::parsePositiveId)
-                .distinct()
+        List<Long> existingIds = existing.stream()
+                .map(ResourceRepository.ResourceRef::getId)
                 .toList();
-    }
+        resourceCache.evictAll(existingIds);
+        songServiceClient.deleteMetadata(existingIds);
+        start = phaseMetrics.record("resource.delete", "song-metadata", start);
+        repository.deleteByIds(existingIds.toArray(Long[]::new));
+        start = phaseMetrics.record("resource.delete", "rows", start);
+        long freed = releaseBlobs(existing);
+        phaseMetrics.record("resource.delete", "blobs", start, freed);
 
-    private String truncateOrDefault(String value, String defaultValue, int maxLength) {
-        value = (value == null || value.isBlank()) ? defaultValue : value;
-        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+        return existingIds;
     }
 
-    private String validateYear(String year) {
-        if (year != null && year.matches("^(19|20)\\d{2}$")) return year;
-        return "1900";
+    /** Drops the references and returns the bytes of the blobs that lost their last one. */
+    private long releaseBlobs(List<ResourceRepository.ResourceRef> resources) {
+        Map<String, Long> references = resources.stream()
+                .collect(Collectors.groupingBy(ResourceRepository.ResourceRef::getContentHash, TreeMap::new, Collectors.counting()));
+        long[] freed = {0};
+        references.forEach((hash, count) -> {
+            blobRepository.lock(hash);
+            blobRepository.findById(hash).ifPresent(blob -> {
+                int remaining = blob.getRefCount() - count.intValue();
+                if (remaining > 0) {
+                    blob.setRefCount(remaining);
+                } else {
+                    blobRepository.delete(blob);
+                    blobReclaimer.reclaimOnCommit(hash, blob.getLocation());
+                    freed[0] += blob.getSize();
+                }
+            });
+        });
+        return freed[0];
     }
 
-    private String formatDuration(String durationStr) {
-        if (durationStr == null) return "00:00";
+    /**
+     * Falls back to Tika when the fast path rejects the file, or trips over a tag it
+     * doesn't expect: a parser bug must not keep a file from ever getting metadata.
+     */
+    private Mp3Metadata readMetadata(SeekableByteChannel mp3) throws IOException, SAXException, TikaException {
         try {
-            long seconds = Long.parseLong(durationStr) / 1000;
-            return String.format("%02d:%02d", seconds / 60, seconds % 60);
-        } catch (NumberFormatException e) {
-            return "00:00";
+            return metadataExtractor.extract(mp3);
+        } catch (RuntimeException e) {
+            return tikaFallback.parse(new BufferedInputStream(Channels.newInputStream(mp3.position(0)), READ_BUFFER_SIZE));
         }
     }
+
+    private void applyMetadata(ResourceBlob blob, Mp3Metadata metadata) {
+        blob.setName(SongFields.truncateOrDefault(metadata.title(), "Unknown Title", 100));
+        blob.setArtist(SongFields.truncateOrDefault(metadata.artist(), "Unknown Artist", 100));
+        blob.setAlbum(SongFields.truncateOrDefault(metadata.album(), "Unknown Album", 100));
+        blob.setDuration(SongFields.formatDuration(metadata.durationMillis()));
+        blob.setYear(SongFields.validateYear(metadata.year()));
+    }
+
+    public SongMetadataDto toSongMetadata(ResourceBlob blob, Long resourceId) {
+        return new SongMetadataDto(
+                resourceId.toString(),
+                blob.getName(),
+                blob.getArtist(),
+                blob.getAlbum(),
+                blob.getDuration(),
+                blob.getYear()
+        );
+    }
+
+    private Resource createResource(ResourceBlob blob) {
+        Resource resource = new Resource();
+        resource.setContentHash(blob.getHash());
+        resource.setLocation(blob.getLocation());
+        resource.setSize(blob.getSize());
+        return resource;
+    }
+
+    private MetadataOutbox createOutboxEntry(Resource resource) {
+        Instant now = Instant.now();
+        MetadataOutbox entry = new MetadataOutbox();
+        entry.setResourceId(resource.getId());
+        entry.setAttempts(0);
+        entry.setCreatedAt(now);
+        entry.setNextAttemptAt(now);
+        return entry;
+    }
 }
@@ -0,0 +1,34 @@
+package com.tamirian.resource.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how long after JVM start the first upload completed, next to Boot's
+ * {@code application.started.time} and {@code application.ready.time}.
+ */
+@Slf4j
+@Component
+public class FirstUploadTimer {
+
+    private final AtomicLong firstUploadMillis = new AtomicLong();
+
+    public FirstUploadTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("resource.startup.first.upload", firstUploadMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("JVM uptime when the first upload completed")
+                .register(meterRegistry);
+    }
+
+    public void uploadCompleted() {
+        if (firstUploadMillis.get() != 0) return;
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstUploadMillis.compareAndSet(0, uptime)) {
+            log.info("First upload completed {} ms after JVM start", uptime);
+        }
+    }
+}
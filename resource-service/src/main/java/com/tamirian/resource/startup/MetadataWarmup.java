@@ -0,0 +1,142 @@
+package com.tamirian.resource.startup;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.tamirian.resource.metadata.Mp3MetadataExtractor;
+import com.tamirian.resource.metadata.TikaMp3Fallback;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the MP3 sniffing, header extraction and Tika fallback over a synthetic file on
+ * a background thread while the context is still starting, so the Tika MIME registry is
+ * loaded and the code is compiled before the first upload. The instance registers with
+ * Eureka as {@code STARTING} ({@code eureka.instance.initial-status}) and is switched to
+ * {@code UP} once the warmup is done and the application is ready; a failed warmup is
+ * logged and does not keep it out of rotation.
+ */
+@Slf4j
+@Component
+public class MetadataWarmup {
+
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAMES = 64;
+
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final TikaMp3Fallback tikaFallback;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final boolean enabled;
+    private final int iterations;
+    private final AtomicLong warmupMillis = new AtomicLong();
+    private CompletableFuture<Void> warmup = CompletableFuture.completedFuture(null);
+
+    public MetadataWarmup(Mp3MetadataExtractor metadataExtractor,
+                          TikaMp3Fallback tikaFallback,
+                          ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${resource.startup.warmup.enabled:true}") boolean enabled,
+                          @Value("${resource.startup.warmup.iterations:50}") int iterations) {
+        this.metadataExtractor = metadataExtractor;
+        this.tikaFallback = tikaFallback;
+        this.applicationInfoManager = applicationInfoManager;
+        this.enabled = enabled;
+        this.iterations = iterations;
+
+        TimeGauge.builder("resource.startup.warmup", warmupMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time spent warming up MP3 detection and parsing")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        warmup = CompletableFuture.runAsync(this::run, task -> {
+            Thread thread = new Thread(task, "metadata-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void markUpWhenWarm() {
+        warmup.whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Metadata warmup failed, going UP cold", e);
+            }
+            applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceStatus.UP));
+        });
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        Path file = null;
+        try {
+            file = Files.createTempFile("warmup", ".mp3");
+            Files.write(file, syntheticMp3());
+            for (int i = 0; i < iterations; i++) {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    if (!metadataExtractor.looksLikeMp3(in) || !tikaFallback.isMp3(in)) {
+                        throw new IllegalStateException("Warmup file was not recognised as MP3");
+                    }
+                    tikaFallback.parse(in);
+                }
+                try (FileChannel channel = FileChannel.open(file)) {
+                    metadataExtractor.extract(channel);
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(file);
+            warmupMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        log.info("Metadata warmup finished in {} ms", warmupMillis.get());
+    }
+
+    /** ID3v2.3 tag with a title, followed by silent 128 kbps / 44.1 kHz MPEG-1 Layer III frames. */
+    private static byte[] syntheticMp3() {
+        byte[] title = "\0Warmup".getBytes(StandardCharsets.ISO_8859_1);
+        int tagSize = 10 + title.length;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10 + tagSize + FRAMES * FRAME_LENGTH);
+        out.writeBytes(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, (byte) tagSize});
+        out.writeBytes("TIT2".getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(new byte[]{0, 0, 0, (byte) title.length, 0, 0});
+        out.writeBytes(title);
+
+        byte[] frame = new byte[FRAME_LENGTH];
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xFB;
+        frame[2] = (byte) 0x90;
+        for (int i = 0; i < FRAMES; i++) {
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.debug("Could not delete warmup file {}", file, e);
+        }
+    }
+}
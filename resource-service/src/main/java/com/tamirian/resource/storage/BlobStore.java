@@ -0,0 +1,83 @@
+package com.tamirian.resource.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+public class BlobStore {
+
+    private final Path root;
+    private final Path tempDir;
+    private final int bufferSize;
+
+    public BlobStore(@Value("${resource.storage.path:data/blobs}") String root,
+                     @Value("${resource.storage.buffer-size:65536}") int bufferSize) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tempDir = this.root.resolve("tmp");
+        this.bufferSize = bufferSize;
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot initialize blob store at " + this.root, e);
+        }
+    }
+
+    public BlobWriter newWriter() throws IOException {
+        return new BlobWriter(this, Files.createTempFile(tempDir, "upload-", ".part"), bufferSize);
+    }
+
+    public FileChannel openChannel(String location) throws IOException {
+        return FileChannel.open(resolve(location), StandardOpenOption.READ);
+    }
+
+    /**
+     * Copies a byte range of the blob to the stream in chunks of up to the buffer size,
+     * reusing one heap buffer for the whole range. This is a plain chunked copy: a
+     * servlet stream is not a file or socket channel, so {@code FileChannel.transferTo}
+     * could not hand it to sendfile either.
+     */
+    public void copyTo(String location, long position, long count, OutputStream out) throws IOException {
+        byte[] chunk = new byte[(int) Math.min(bufferSize, count)];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        try (FileChannel channel = openChannel(location)) {
+            long end = position + count;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(chunk.length, end - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    throw new IOException("Blob " + location + " ended before byte " + end);
+                }
+                out.write(chunk, 0, read);
+                position += read;
+            }
+        }
+    }
+
+    public void delete(String location) {
+        try {
+            Files.deleteIfExists(resolve(location));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete blob " + location, e);
+        }
+    }
+
+    Path resolve(String location) {
+        Path path = root.resolve(location).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Blob location escapes the store: " + location);
+        }
+        return path;
+    }
+
+    String locationOf(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tamirian.resource.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Spools bytes into a temporary file through a fixed-size heap buffer while
+ * hashing them with SHA-256. The file only becomes visible in the store, under
+ * its content hash, once {@link #commit()} is called; closing an uncommitted
+ * writer discards it.
+ */
+public class BlobWriter implements Closeable {
+
+    private final BlobStore store;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private final MessageDigest digest;
+    private long size;
+    private String hash;
+    private boolean committed;
+
+    BlobWriter(BlobStore store, Path tempFile, int bufferSize) throws IOException {
+        this.store = store;
+        this.tempFile = tempFile;
+        this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        digest.update(bytes, offset, length);
+        while (length > 0) {
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            size += chunk;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** The SHA-256 of the content; only known once {@link #finish()} has run. */
+    public String hash() {
+        if (hash == null) {
+            throw new IllegalStateException("Blob is not finished");
+        }
+        return hash;
+    }
+
+    public String finish() throws IOException {
+        if (hash == null) {
+            flush();
+            channel.force(false);
+            channel.close();
+            buffer = null;
+            hash = HexFormat.of().formatHex(digest.digest());
+        }
+        return hash;
+    }
+
+    /** Reads back the finished, not yet committed bytes. */
+    public FileChannel openChannel() throws IOException {
+        return FileChannel.open(tempFile, StandardOpenOption.READ);
+    }
+
+    public StoredBlob commit() throws IOException {
+        String location = store.locationOf(finish());
+        Path target = store.resolve(location);
+        Files.createDirectories(target.getParent());
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return new StoredBlob(hash, location, size);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+        if (!committed) {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
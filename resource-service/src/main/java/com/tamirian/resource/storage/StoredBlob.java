@@ -0,0 +1,7 @@
+package com.tamirian.resource.storage;
+
+public record StoredBlob(
+        String hash,
+        String location,
+        long size
+) {}
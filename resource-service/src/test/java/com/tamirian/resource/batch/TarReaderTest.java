@@ -0,0 +1,76 @@
+package com.tamirian.resource.batch;
+
+import com.tamirian.resource.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TarReaderTest {
+
+    @Test
+    void readsRegularFiles() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        entry(tar, "a.mp3", '0', "first");
+        entry(tar, "b.mp3", '0', "second");
+        end(tar);
+
+        TarReader reader = new TarReader(new ByteArrayInputStream(tar.toByteArray()));
+        BatchSource.File first = reader.next();
+        assertThat(first.name()).isEqualTo("a.mp3");
+        assertThat(first.content().readAllBytes()).asString().isEqualTo("first");
+        BatchSource.File second = reader.next();
+        assertThat(second.name()).isEqualTo("b.mp3");
+        assertThat(second.content().readAllBytes()).asString().isEqualTo("second");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void honoursGnuLongNames() throws IOException {
+        String longName = "music/" + "x".repeat(200) + ".mp3";
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        entry(tar, "././@LongLink", 'L', longName + "\0");
+        entry(tar, longName.substring(0, 99), '0', "song");
+        end(tar);
+
+        BatchSource.File file = new TarReader(new ByteArrayInputStream(tar.toByteArray())).next();
+        assertThat(file.name()).isEqualTo(longName);
+        assertThat(file.content().readAllBytes()).asString().isEqualTo("song");
+    }
+
+    @Test
+    void rejectsOversizedLongName() {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        tar.writeBytes(header("././@LongLink", 'L', 1L << 30));
+        tar.writeBytes(new byte[4096]);
+
+        assertThatThrownBy(() -> new TarReader(new ByteArrayInputStream(tar.toByteArray())).next())
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Tar entry name is too long");
+    }
+
+    private static void entry(ByteArrayOutputStream tar, String name, char type, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        tar.writeBytes(header(name, type, bytes.length));
+        tar.writeBytes(bytes);
+        tar.writeBytes(new byte[(512 - bytes.length % 512) % 512]);
+    }
+
+    private static void end(ByteArrayOutputStream tar) {
+        tar.writeBytes(new byte[1024]);
+    }
+
+    private static byte[] header(String name, char type, long size) {
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        byte[] sizeField = String.format("%011o", size).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(sizeField, 0, header, 124, sizeField.length);
+        header[156] = (byte) type;
+        return header;
+    }
+}
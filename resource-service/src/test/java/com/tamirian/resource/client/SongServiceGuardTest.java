@@ -0,0 +1,43 @@
+package com.tamirian.resource.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SongServiceGuardTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SongServiceGuard guard = new SongServiceGuard(meterRegistry, 5, 50, 20, 50, Duration.ofSeconds(2), 80,
+            Duration.ofSeconds(10), 5, 3, Duration.ofMillis(1), Duration.ofMillis(1), 0, 10);
+
+    @Test
+    void spendsNoBudgetOnTheLastAttempt() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.call(() -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        })).isInstanceOf(HttpServerErrorException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(tokens()).isEqualTo(8.0);
+    }
+
+    @Test
+    void spendsNothingWhenTheFirstAttemptSucceeds() {
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+
+        assertThat(tokens()).isEqualTo(10.0);
+    }
+
+    private double tokens() {
+        return meterRegistry.get("resilience4j.retry.budget.tokens").gauge().value();
+    }
+}
@@ -0,0 +1,71 @@
+package com.tamirian.resource.metadata;
+
+import com.tamirian.resource.exception.InvalidMp3Exception;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Mp3MetadataExtractorTest {
+
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAMES = 40;
+
+    private final Mp3MetadataExtractor extractor = new Mp3MetadataExtractor();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsDurationOfUntaggedFile() throws IOException {
+        Mp3Metadata metadata = extract(mp3(new byte[0]));
+
+        assertThat(metadata.title()).isNull();
+        assertThat(metadata.durationMillis()).isBetween(1000L, 1100L);
+    }
+
+    @Test
+    void rejectsUnsynchronisedTagTooShortForItsExtendedHeader() {
+        // ID3v2.3, unsynchronisation and extended header flags, three bytes of tag
+        byte[] tag = {'I', 'D', '3', 3, 0, (byte) 0xC0, 0, 0, 0, 3, 0, 0, 6};
+
+        assertThatThrownBy(() -> extract(mp3(tag)))
+                .isInstanceOf(InvalidMp3Exception.class)
+                .hasMessage("ID3v2 tag is truncated");
+    }
+
+    @Test
+    void rejectsExtendedHeaderCutOffByTheFileEnd() {
+        // ID3v2.4 with an extended header flag whose tag size covers the whole, too short, file
+        byte[] file = {'I', 'D', '3', 4, 0, 0x40, 0, 0, 0, 2, 0, 0};
+
+        assertThatThrownBy(() -> extract(file))
+                .isInstanceOf(InvalidMp3Exception.class);
+    }
+
+    static byte[] mp3(byte[] tag) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(tag);
+        for (int i = 0; i < FRAMES; i++) {
+            byte[] frame = new byte[FRAME_LENGTH];
+            frame[0] = (byte) 0xFF;
+            frame[1] = (byte) 0xFB;
+            frame[2] = (byte) 0x90;
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+
+    private Mp3Metadata extract(byte[] bytes) throws IOException {
+        Path file = Files.write(directory.resolve("song.mp3"), bytes);
+        try (FileChannel channel = FileChannel.open(file)) {
+            return extractor.extract(channel);
+        }
+    }
+}
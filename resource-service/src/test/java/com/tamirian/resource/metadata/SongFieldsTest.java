@@ -0,0 +1,22 @@
+package com.tamirian.resource.metadata;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SongFieldsTest {
+
+    @Test
+    void formatsDurationsSongServiceAccepts() {
+        assertThat(SongFields.formatDuration(0)).isEqualTo("00:00");
+        assertThat(SongFields.formatDuration(61_999)).isEqualTo("01:01");
+        assertThat(SongFields.formatDuration(3_599_999)).isEqualTo("59:59");
+    }
+
+    @Test
+    void dropsDurationsOfAnHourOrMore() {
+        assertThat(SongFields.formatDuration(3_600_000)).isNull();
+        assertThat(SongFields.formatDuration(100 * 60_000)).isNull();
+        assertThat(SongFields.formatDuration(-1_000)).isNull();
+    }
+}
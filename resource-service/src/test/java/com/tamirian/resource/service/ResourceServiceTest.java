@@ -0,0 +1,46 @@
+package com.tamirian.resource.service;
+
+import com.tamirian.resource.dto.SongMetadataDto;
+import com.tamirian.resource.metadata.Mp3MetadataExtractor;
+import com.tamirian.resource.metadata.TikaMp3Fallback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceServiceTest {
+
+    private final ResourceService service = new ResourceService(null, null, null, null, null, null,
+            new Mp3MetadataExtractor(), new TikaMp3Fallback(), null, null, null);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fallsBackToTikaWhenTheTagIsMalformed() throws Exception {
+        // ID3v2.3, unsynchronisation and extended header flags, three bytes of tag
+        ByteArrayOutputStream mp3 = new ByteArrayOutputStream();
+        mp3.writeBytes(new byte[]{'I', 'D', '3', 3, 0, (byte) 0xC0, 0, 0, 0, 3, 0, 0, 6});
+        for (int i = 0; i < 40; i++) {
+            byte[] frame = new byte[417];
+            frame[0] = (byte) 0xFF;
+            frame[1] = (byte) 0xFB;
+            frame[2] = (byte) 0x90;
+            mp3.writeBytes(frame);
+        }
+        Path file = Files.write(directory.resolve("song.mp3"), mp3.toByteArray());
+
+        SongMetadataDto metadata;
+        try (FileChannel channel = FileChannel.open(file)) {
+            metadata = service.extractMetadata(channel, 7L);
+        }
+
+        assertThat(metadata.id()).isEqualTo("7");
+        assertThat(metadata.name()).isEqualTo("Unknown Title");
+        assertThat(metadata.duration()).isEqualTo("00:01");
+    }
+}
@@ -0,0 +1,37 @@
+package com.tamirian.commons.discovery;
+
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplierBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import java.nio.file.Path;
+
+/**
+ * Per-client load balancer configuration that puts {@link SnapshotServiceInstanceListSupplier}
+ * over the usual cached discovery lookup; register it next to the balancer in
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)}. Settings live under
+ * {@code loadbalancer.snapshot.*}: {@code enabled} (true), {@code dir}
+ * ({@code data/discovery}) and {@code static.<service-id>}, a comma-separated list of
+ * base URIs used when neither discovery nor a snapshot has instances.
+ */
+public class SnapshotDiscoveryConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier snapshotServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        ServiceInstanceListSupplierBuilder builder = ServiceInstanceListSupplier.builder();
+        builder = context.getBeanProvider(ReactiveDiscoveryClient.class).getIfAvailable() != null
+                ? builder.withDiscoveryClient()
+                : builder.withBlockingDiscoveryClient();
+        builder = builder.withCaching();
+        if (environment.getProperty("loadbalancer.snapshot.enabled", Boolean.class, true)) {
+            Path directory = Path.of(environment.getProperty("loadbalancer.snapshot.dir", "data/discovery"));
+            builder = builder.with((ctx, delegate) -> new SnapshotServiceInstanceListSupplier(delegate, directory,
+                    SnapshotServiceInstanceListSupplier.parseUris(
+                            environment.getProperty("loadbalancer.snapshot.static." + delegate.getServiceId()))));
+        }
+        return builder.build(context);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tamirian.commons.discovery;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Falls back to the last instances discovery returned, kept in a file, whenever
+ * discovery has none: before the registry has been fetched, while the registry
+ * server is down or restarting with an empty registry, or across a restart of this
+ * service. Without a snapshot, a static list from configuration is used. The file
+ * holds one URI per line and is rewritten off the calling thread, only when the set
+ * of instances changes; registry metadata is not kept.
+ */
+public class SnapshotServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private static final Log log = LogFactory.getLog(SnapshotServiceInstanceListSupplier.class);
+
+    private final Path file;
+    private final List<ServiceInstance> staticInstances;
+    private volatile List<ServiceInstance> snapshot;
+    private volatile Set<String> saved;
+
+    public SnapshotServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, Path directory, List<URI> staticUris) {
+        super(delegate);
+        this.file = directory.resolve(getServiceId() + ".instances");
+        this.staticInstances = staticUris.stream().map(this::instance).toList();
+        this.snapshot = load();
+        this.saved = uris(snapshot);
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> {
+            if (instances.isEmpty()) {
+                return snapshot.isEmpty() ? staticInstances : snapshot;
+            }
+            remember(instances);
+            return instances;
+        });
+    }
+
+    private void remember(List<ServiceInstance> instances) {
+        Set<String> current = uris(instances);
+        if (current.equals(saved)) return;
+        saved = current;
+        snapshot = List.copyOf(instances);
+        Schedulers.boundedElastic().schedule(() -> save(current));
+    }
+
+    private synchronized void save(Set<String> uris) {
+        if (!uris.equals(saved)) return;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, String.join("\n", uris) + "\n", StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write discovery snapshot " + file + ": " + e.getMessage());
+        }
+    }
+
+    private List<ServiceInstance> load() {
+        try {
+            List<ServiceInstance> instances = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    instances.add(instance(URI.create(line.trim())));
+                }
+            }
+            log.info("Loaded " + instances.size() + " " + getServiceId() + " instances from " + file);
+            return List.copyOf(instances);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable discovery snapshot " + file + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private ServiceInstance instance(URI uri) {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() >= 0 ? uri.getPort() : secure ? 443 : 80;
+        return new DefaultServiceInstance(uri.getHost() + ":" + port, getServiceId(), uri.getHost(), port, secure);
+    }
+
+    private static Set<String> uris(List<ServiceInstance> instances) {
+        return instances.stream()
+                .map(instance -> instance.getUri().toString())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    static List<URI> parseUris(String csv) {
+        if (csv == null || csv.isBlank()) return List.of();
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(URI::create)
+                .toList();
+    }
+}
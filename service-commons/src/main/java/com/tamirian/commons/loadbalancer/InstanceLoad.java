@@ -0,0 +1,65 @@
+package com.tamirian.commons.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load estimate for one instance: requests in flight and a peak-sensitive EWMA of
+ * response time. A sample above the average replaces it outright, so a stall shows up
+ * on the next completion; lower samples are blended in with a weight that depends on
+ * the time since the last update. The average also decays towards zero while nothing
+ * is observed, so an instance that was shunned after a slow spell gets probed again.
+ */
+public final class InstanceLoad {
+
+    private final double decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double ewmaNanos;
+    private long stampNanos;
+
+    InstanceLoad(long decayNanos, long now) {
+        this.decayNanos = decayNanos;
+        this.stampNanos = now;
+    }
+
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    public void complete(long now, long latencyNanos) {
+        inFlight.decrementAndGet();
+        observe(now, latencyNanos);
+    }
+
+    public void abandon() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * EWMA latency scaled by the queue the next request would join. An instance that
+     * has requests out but no measurement yet is avoided until its first one returns.
+     */
+    public double cost(long now) {
+        double latency = observe(now, 0);
+        int pending = inFlight.get();
+        if (latency == 0 && pending > 0) {
+            return Double.MAX_VALUE / 2;
+        }
+        return latency * (pending + 1);
+    }
+
+    private synchronized double observe(long now, double sampleNanos) {
+        long elapsed = Math.max(now - stampNanos, 0);
+        stampNanos = Math.max(now, stampNanos);
+        double weight = Math.exp(-elapsed / decayNanos);
+        if (sampleNanos > ewmaNanos) {
+            ewmaNanos = sampleNanos;
+        } else {
+            ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+        }
+        return ewmaNanos;
+    }
+}
@@ -0,0 +1,59 @@
+package com.tamirian.commons.loadbalancer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks two distinct instances at random and sends the request to the one with the
+ * lower {@link InstanceLoad#cost}. Comparing only two keeps the choice O(1) and stops
+ * every client from herding onto the single instance that looked best a moment ago,
+ * while still steering clear of the slowest one. Load is tracked per instance key and
+ * forgotten once the key has dropped out of the instance list.
+ */
+public class PowerOfTwoChoices {
+
+    private final long decayNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public PowerOfTwoChoices(long decayNanos, LongSupplier nanoClock) {
+        this.decayNanos = decayNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public <T> T choose(List<T> instances, Function<T, String> key) {
+        int size = instances.size();
+        if (size == 0) return null;
+        if (loads.size() > 2 * size) {
+            retain(instances, key);
+        }
+        if (size == 1) return instances.get(0);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) second++;
+
+        long now = nanoClock.getAsLong();
+        T a = instances.get(first);
+        T b = instances.get(second);
+        return load(key.apply(a)).cost(now) <= load(key.apply(b)).cost(now) ? a : b;
+    }
+
+    public InstanceLoad load(String key) {
+        return loads.computeIfAbsent(key, k -> new InstanceLoad(decayNanos, nanoClock.getAsLong()));
+    }
+
+    public long now() {
+        return nanoClock.getAsLong();
+    }
+
+    private <T> void retain(List<T> instances, Function<T, String> key) {
+        List<String> live = instances.stream().map(key).toList();
+        loads.keySet().retainAll(live);
+    }
+}
@@ -0,0 +1,124 @@
+package com.tamirian.commons.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spring Cloud LoadBalancer adapter for {@link PowerOfTwoChoices}. It is also the
+ * lifecycle listener that feeds the load estimates: both the gateway's reactive filter
+ * and the blocking {@code @LoadBalanced} RestTemplate report the start and end of each
+ * request. Transport failures count as at least {@code failurePenalty} so an instance
+ * refusing connections doesn't look fast. The reactive filter doesn't report
+ * cancelled requests, so requests older than {@code requestTimeout} are written off.
+ */
+public class PowerOfTwoChoicesLoadBalancer
+        implements ReactorServiceInstanceLoadBalancer, LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private record Outstanding(InstanceLoad load, long startNanos) {}
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers;
+    private final PowerOfTwoChoices choices;
+    private final long failurePenaltyNanos;
+    private final long requestTimeoutNanos;
+    private final Map<RequestKey, Outstanding> outstanding = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    public PowerOfTwoChoicesLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers,
+                                         long decayNanos, long failurePenaltyNanos, long requestTimeoutNanos) {
+        this.instanceSuppliers = instanceSuppliers;
+        this.choices = new PowerOfTwoChoices(decayNanos, System::nanoTime);
+        this.failurePenaltyNanos = failurePenaltyNanos;
+        this.requestTimeoutNanos = requestTimeoutNanos;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = instanceSuppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            sweepAbandoned();
+            ServiceInstance chosen = choices.choose(instances, PowerOfTwoChoicesLoadBalancer::key);
+            return chosen == null ? new EmptyResponse() : new DefaultResponse(chosen);
+        });
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) return;
+        InstanceLoad load = choices.load(key(lbResponse.getServer()));
+        load.start();
+        outstanding.put(new RequestKey(request), new Outstanding(load, choices.now()));
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Outstanding request = outstanding.remove(new RequestKey(completionContext.getLoadBalancerRequest()));
+        if (request == null) return;
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            request.load().abandon();
+            return;
+        }
+        long now = choices.now();
+        long latency = now - request.startNanos();
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        request.load().complete(now, latency);
+    }
+
+    private void sweepAbandoned() {
+        long now = choices.now();
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) return;
+        outstanding.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().startNanos() < requestTimeoutNanos) return false;
+            entry.getValue().load().abandon();
+            return true;
+        });
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * Requests are matched by identity: their equals() compares contexts, which can be
+     * equal for two concurrent calls.
+     */
+    private static final class RequestKey {
+
+        private final Request<?> request;
+
+        RequestKey(Request<?> request) {
+            this.request = request;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
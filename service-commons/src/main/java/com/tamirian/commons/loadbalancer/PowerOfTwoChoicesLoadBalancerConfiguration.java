@@ -0,0 +1,31 @@
+package com.tamirian.commons.loadbalancer;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client load balancer configuration; register it with
+ * {@code @LoadBalancerClients(defaultConfiguration = PowerOfTwoChoicesLoadBalancerConfiguration.class)}.
+ * Settings live under {@code loadbalancer.p2c.*}: {@code decay-time} (10s),
+ * {@code failure-penalty} (1s) and {@code request-timeout} (60s).
+ */
+public class PowerOfTwoChoicesLoadBalancerConfiguration {
+
+    @Bean
+    public PowerOfTwoChoicesLoadBalancer powerOfTwoChoicesLoadBalancer(Environment environment,
+                                                                       LoadBalancerClientFactory loadBalancerClientFactory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PowerOfTwoChoicesLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(name, ServiceInstanceListSupplier.class),
+                nanos(environment, "loadbalancer.p2c.decay-time", "10s"),
+                nanos(environment, "loadbalancer.p2c.failure-penalty", "1s"),
+                nanos(environment, "loadbalancer.p2c.request-timeout", "60s"));
+    }
+
+    private static long nanos(Environment environment, String property, String defaultValue) {
+        return DurationStyle.detectAndParse(environment.getProperty(property, defaultValue)).toNanos();
+    }
+}
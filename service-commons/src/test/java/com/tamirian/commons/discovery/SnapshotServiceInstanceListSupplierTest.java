@@ -0,0 +1,72 @@
+package com.tamirian.commons.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotServiceInstanceListSupplierTest {
+
+    private static final Duration FIRST_LIST_WITHIN = Duration.ofMillis(500);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void servesPersistedSnapshotWhileDiscoveryIsEmpty() throws IOException {
+        Files.writeString(directory.resolve("song-service.instances"), "http://10.0.0.1:8081\nhttp://10.0.0.2:8081\n");
+
+        SnapshotServiceInstanceListSupplier supplier =
+                new SnapshotServiceInstanceListSupplier(new UnavailableDiscovery(), directory, List.of());
+
+        assertThat(uris(supplier.get().blockFirst(FIRST_LIST_WITHIN)))
+                .containsExactly("http://10.0.0.1:8081", "http://10.0.0.2:8081");
+    }
+
+    @Test
+    void servesStaticInstancesWithoutSnapshot() {
+        SnapshotServiceInstanceListSupplier supplier = new SnapshotServiceInstanceListSupplier(new UnavailableDiscovery(),
+                directory, SnapshotServiceInstanceListSupplier.parseUris("http://song-service:8081, https://songs.example"));
+
+        List<ServiceInstance> instances = supplier.get().blockFirst(FIRST_LIST_WITHIN);
+        assertThat(uris(instances)).containsExactly("http://song-service:8081", "https://songs.example:443");
+        assertThat(instances.get(1).isSecure()).isTrue();
+    }
+
+    @Test
+    void prefersSnapshotOverStaticInstances() throws IOException {
+        Files.writeString(directory.resolve("song-service.instances"), "http://10.0.0.1:8081\n");
+
+        SnapshotServiceInstanceListSupplier supplier = new SnapshotServiceInstanceListSupplier(new UnavailableDiscovery(),
+                directory, List.of(URI.create("http://song-service:8081")));
+
+        assertThat(uris(supplier.get().blockFirst(FIRST_LIST_WITHIN))).containsExactly("http://10.0.0.1:8081");
+    }
+
+    private static List<String> uris(List<ServiceInstance> instances) {
+        return instances.stream().map(instance -> instance.getUri().toString()).toList();
+    }
+
+    /** Discovery that has not fetched the registry yet, or whose server is down. */
+    private static class UnavailableDiscovery implements ServiceInstanceListSupplier {
+
+        @Override
+        public String getServiceId() {
+            return "song-service";
+        }
+
+        @Override
+        public Flux<List<ServiceInstance>> get() {
+            return Flux.just(List.of());
+        }
+    }
+}
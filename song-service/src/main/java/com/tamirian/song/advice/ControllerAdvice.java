@@ -9,6 +9,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,6 +33,12 @@ public class ControllerAdvice {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ErrorResponse error = new ErrorResponse("Invalid value for parameter '" + ex.getName() + "'", "400");
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @ExceptionHandler(SongMetadataNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(SongMetadataNotFoundException ex) {
         ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "404");
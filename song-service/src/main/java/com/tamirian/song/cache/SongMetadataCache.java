@@ -0,0 +1,63 @@
+package com.tamirian.song.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tamirian.song.dto.SongMetadataDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of ready-to-serve DTOs keyed by song ID. Missing IDs are cached
+ * as empty entries with a much shorter lifetime so repeated 404s don't reach the
+ * database. Writers evict exact keys; inside a transaction the eviction is repeated
+ * after commit so a reader that loaded the old row in between can't keep it alive.
+ */
+@Component
+public class SongMetadataCache {
+
+    private final Cache<Long, Optional<SongMetadataDto>> cache;
+
+    public SongMetadataCache(MeterRegistry meterRegistry,
+                             @Value("${song.cache.maximum-size:100000}") long maximumSize,
+                             @Value("${song.cache.ttl:30m}") Duration ttl,
+                             @Value("${song.cache.negative-ttl:5s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<Long, Optional<SongMetadataDto>>writing(
+                        (id, value) -> value.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "song-metadata");
+    }
+
+    public Optional<SongMetadataDto> get(long id, Function<Long, Optional<SongMetadataDto>> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void evict(long id) {
+        evictAll(List.of(id));
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+}
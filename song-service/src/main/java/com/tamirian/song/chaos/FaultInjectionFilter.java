@@ -0,0 +1,62 @@
+package com.tamirian.song.chaos;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Turns song-service into a misbehaving dependency for exercising the callers'
+ * resilience settings locally. Only active with the {@code chaos} profile, e.g.
+ * {@code SPRING_PROFILES_ACTIVE=chaos SONG_CHAOS_LATENCY=1500ms SONG_CHAOS_ERROR_RATE=0.3}.
+ */
+@Slf4j
+@Component
+@Profile("chaos")
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+
+    public FaultInjectionFilter(@Value("${song.chaos.latency:0ms}") Duration latency,
+                                @Value("${song.chaos.jitter:0ms}") Duration jitter,
+                                @Value("${song.chaos.error-rate:0}") double errorRate) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        log.warn("Fault injection enabled: latency={} jitter={} error-rate={}", latency, jitter, errorRate);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/songs");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latency.toMillis() + (jitter.isZero() ? 0 : random.nextLong(jitter.toMillis() + 1));
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (random.nextDouble() < errorRate) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Injected fault");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -1,8 +1,14 @@
 package com.tamirian.song.controller;
 
+import com.tamirian.song.dto.DeleteRequest;
+import com.tamirian.song.dto.DeletedIdsDto;
+import com.tamirian.song.dto.SongBatchResultDto;
 import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.dto.SongPageDto;
+import com.tamirian.song.dto.SongStatsDto;
 import com.tamirian.song.service.SongMetadataService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -12,6 +18,9 @@ import java.util.Map;
 @RequestMapping("/songs")
 public class SongMetadataController {
 
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+
     private final SongMetadataService songService;
 
     public SongMetadataController(SongMetadataService songService) {
@@ -23,13 +32,43 @@ public class SongMetadataController {
         return ResponseEntity.ok(songService.createSongMetadata(dto));
     }
 
+    @PostMapping(value = "/batch", consumes = {JSON, CBOR}, produces = {JSON, CBOR})
+    public ResponseEntity<SongBatchResultDto> createSongs(@RequestBody List<SongMetadataDto> dtos) {
+        return ResponseEntity.ok(new SongBatchResultDto(songService.createSongMetadataBatch(dtos)));
+    }
+
+    @GetMapping
+    public ResponseEntity<SongPageDto> listSongs(@RequestParam(required = false) String artist,
+                                                 @RequestParam(required = false) String album,
+                                                 @RequestParam(required = false) String year,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(songService.listSongMetadata(artist, album, year, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, List<SongMetadataDto>>> searchSongs(@RequestParam("q") String query,
+                                                                         @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(Map.of("items", songService.searchSongMetadata(query, limit)));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<SongStatsDto> getStats(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(songService.getStats(limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SongMetadataDto> getSong(@PathVariable Long id) {
         return ResponseEntity.ok(songService.getSongMetadataById(id));
     }
 
     @DeleteMapping
-    public ResponseEntity<Map<String, List<Long>>> deleteSongs(@RequestParam("id") String ids) {
-        return ResponseEntity.ok(Map.of("ids",songService.deleteSongsMetadataByIds(ids)));
+    public ResponseEntity<DeletedIdsDto> deleteSongs(@RequestParam("id") String ids) {
+        return ResponseEntity.ok(new DeletedIdsDto(songService.deleteSongsMetadataByIds(ids)));
+    }
+
+    @PostMapping(value = "/delete", consumes = {JSON, CBOR}, produces = {JSON, CBOR})
+    public ResponseEntity<DeletedIdsDto> deleteSongs(@RequestBody DeleteRequest request) {
+        return ResponseEntity.ok(new DeletedIdsDto(songService.deleteSongsMetadata(request.ids())));
     }
 }
@@ -0,0 +1,21 @@
+package com.tamirian.song.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SongBatchItemResult(
+        String id,
+        Status status,
+        Map<String, String> errors
+) {
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+
+    public static SongBatchItemResult of(String id, Status status) {
+        return new SongBatchItemResult(id, status, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tamirian.song.dto;
+
+import java.util.List;
+
+public record SongBatchResultDto(
+        List<SongBatchItemResult> results
+) {}
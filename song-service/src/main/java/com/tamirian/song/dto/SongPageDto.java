@@ -0,0 +1,8 @@
+package com.tamirian.song.dto;
+
+import java.util.List;
+
+public record SongPageDto(
+        List<SongMetadataDto> items,
+        String nextCursor
+) {}
@@ -0,0 +1,8 @@
+package com.tamirian.song.dto;
+
+public record SongStatDto(
+        String value,
+        long songs,
+        long totalDurationSeconds,
+        Double averageDurationSeconds
+) {}
@@ -0,0 +1,9 @@
+package com.tamirian.song.dto;
+
+import java.util.List;
+
+public record SongStatsDto(
+        List<SongStatDto> artists,
+        List<SongStatDto> albums,
+        List<SongStatDto> years
+) {}
@@ -4,6 +4,11 @@ import com.tamirian.song.dto.SongMetadataDto;
 import com.tamirian.song.model.SongMetadata;
 import org.springframework.stereotype.Component;
 
+/**
+ * Converts between the API form and the stored row. Durations are stored as whole
+ * seconds and only turned into {@code mm:ss} here; the DTO has already been validated
+ * against that pattern, so parsing is plain digit arithmetic.
+ */
 @Component
 public class SongMetadataMapper {
 
@@ -13,8 +18,8 @@ public class SongMetadataMapper {
                 dto.name(),
                 dto.artist(),
                 dto.album(),
-                (dto.duration()),
-                Integer.parseInt(dto.year()));
+                parseDuration(dto.duration()),
+                dto.year() == null ? null : Integer.parseInt(dto.year()));
     }
 
     public SongMetadataDto toDto(SongMetadata entity){
@@ -23,7 +28,23 @@ public class SongMetadataMapper {
                 entity.getName(),
                 entity.getArtist(),
                 entity.getAlbum(),
-                entity.getDuration(),
-                entity.getYear().toString());
+                formatDuration(entity.getDurationSeconds()),
+                entity.getYear() == null ? null : entity.getYear().toString());
+    }
+
+    private static Integer parseDuration(String mmss) {
+        if (mmss == null) return null;
+        int minutes = (mmss.charAt(0) - '0') * 10 + (mmss.charAt(1) - '0');
+        int seconds = (mmss.charAt(3) - '0') * 10 + (mmss.charAt(4) - '0');
+        return minutes * 60 + seconds;
+    }
+
+    private static String formatDuration(Integer totalSeconds) {
+        if (totalSeconds == null) return null;
+        int minutes = totalSeconds / 60;
+        int seconds = totalSeconds % 60;
+        return new String(new char[]{
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10), ':',
+                (char) ('0' + seconds / 10), (char) ('0' + seconds % 10)});
     }
 }
@@ -5,9 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import java.time.Duration;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "song_metadata_artist_id_idx", columnList = "artist, id"),
+        @Index(name = "song_metadata_album_id_idx", columnList = "album, id"),
+        @Index(name = "song_metadata_year_id_idx", columnList = "year, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -22,7 +26,8 @@ public class SongMetadata {
 
     private String album;
 
-    private String duration;
+    @Column(name = "duration_seconds")
+    private Integer durationSeconds;
 
     private Integer year;
 }
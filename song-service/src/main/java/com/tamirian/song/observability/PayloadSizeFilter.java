@@ -0,0 +1,116 @@
+package com.tamirian.song.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+/**
+ * Records the request and response body sizes of the create, get and delete endpoints
+ * as the {@code request} and {@code response} phases of their operation. The request
+ * size comes from its Content-Length, if it has a body; the response is counted as it
+ * is written, so nothing is buffered.
+ */
+@Component
+public class PayloadSizeFilter extends OncePerRequestFilter {
+
+    private final PhaseMetrics phaseMetrics;
+
+    public PayloadSizeFilter(PhaseMetrics phaseMetrics) {
+        this.phaseMetrics = phaseMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/songs");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        chain.doFilter(request, counting);
+
+        String operation = operation(request.getMethod(),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (operation == null) return;
+        long requestBytes = request.getContentLengthLong();
+        if (requestBytes > 0) {
+            phaseMetrics.recordBytes(operation, "request", requestBytes);
+        }
+        phaseMetrics.recordBytes(operation, "response", counting.bytes());
+    }
+
+    private static String operation(String method, String pattern) {
+        if (pattern == null) return null;
+        return switch (method + " " + pattern) {
+            case "POST /songs" -> "song.create";
+            case "POST /songs/batch" -> "song.create.batch";
+            case "GET /songs/{id}" -> "song.get";
+            case "DELETE /songs", "POST /songs/delete" -> "song.delete";
+            default -> null;
+        };
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream stream;
+        private long bytes;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
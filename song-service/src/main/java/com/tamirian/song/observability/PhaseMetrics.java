@@ -0,0 +1,46 @@
+package com.tamirian.song.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase timers for the create, get and delete paths, named {@code <operation>.phase}
+ * with a {@code phase} tag, and payload sizes in {@code <operation>.phase.bytes}. A meter
+ * is created on first use; after that a phase costs a map lookup and a {@code nanoTime}
+ * call. Returns the end time so the next phase can start from it.
+ */
+@Component
+public class PhaseMetrics {
+
+    private record Key(String operation, String phase) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public PhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long record(String operation, String phase, long startNanos) {
+        long end = System.nanoTime();
+        timers.computeIfAbsent(new Key(operation, phase), key -> Timer.builder(key.operation() + ".phase")
+                        .tag("phase", key.phase())
+                        .register(meterRegistry))
+                .record(end - startNanos, TimeUnit.NANOSECONDS);
+        return end;
+    }
+
+    public void recordBytes(String operation, String phase, long bytes) {
+        sizes.computeIfAbsent(new Key(operation, phase), key -> DistributionSummary.builder(key.operation() + ".phase.bytes")
+                        .tag("phase", key.phase())
+                        .baseUnit("bytes")
+                        .register(meterRegistry))
+                .record(bytes);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tamirian.song.repository;
+
+import com.tamirian.song.model.SongMetadata;
+import java.util.List;
+
+public interface SongMetadataBatchRepository {
+    /**
+     * Inserts the rows with JDBC batching, skipping IDs that already exist.
+     * Returns one flag per input row telling whether it was inserted.
+     */
+    boolean[] insertIfAbsent(List<SongMetadata> songs);
+
+    /**
+     * Deletes the rows in one set-based statement and returns the rows that existed.
+     */
+    List<SongMetadata> deleteByIdsReturning(List<Long> ids);
+}
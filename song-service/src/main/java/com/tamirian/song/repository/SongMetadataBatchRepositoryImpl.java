@@ -0,0 +1,71 @@
+package com.tamirian.song.repository;
+
+import com.tamirian.song.model.SongMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+public class SongMetadataBatchRepositoryImpl implements SongMetadataBatchRepository {
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO song_metadata (id, name, artist, album, duration_seconds, year)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING""";
+
+    private static final String DELETE_RETURNING =
+            "DELETE FROM song_metadata WHERE id = ANY(?) RETURNING id, name, artist, album, duration_seconds, year";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public SongMetadataBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${song.batch.jdbc-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean[] insertIfAbsent(List<SongMetadata> songs) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, songs, batchSize, (ps, song) -> {
+            ps.setLong(1, song.getId());
+            ps.setString(2, song.getName());
+            ps.setString(3, song.getArtist());
+            ps.setString(4, song.getAlbum());
+            setNullableInt(ps, 5, song.getDurationSeconds());
+            setNullableInt(ps, 6, song.getYear());
+        });
+
+        boolean[] inserted = new boolean[songs.size()];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted[index++] = count > 0;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public List<SongMetadata> deleteByIdsReturning(List<Long> ids) {
+        return jdbcTemplate.query(DELETE_RETURNING,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                (rs, row) -> new SongMetadata(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getObject(5, Integer.class),
+                        rs.getObject(6, Integer.class)));
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.tamirian.song.repository;
+
+import com.tamirian.song.model.SongMetadata;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class SongMetadataSpecifications {
+
+    private SongMetadataSpecifications() {
+    }
+
+    public static Specification<SongMetadata> artistEquals(String artist) {
+        return (root, query, cb) -> artist == null ? null : cb.equal(root.get("artist"), artist);
+    }
+
+    public static Specification<SongMetadata> albumEquals(String album) {
+        return (root, query, cb) -> album == null ? null : cb.equal(root.get("album"), album);
+    }
+
+    public static Specification<SongMetadata> yearEquals(Integer year) {
+        return (root, query, cb) -> year == null ? null : cb.equal(root.get("year"), year);
+    }
+
+    public static Specification<SongMetadata> idAfter(Long id) {
+        return (root, query, cb) -> id == null ? null : cb.greaterThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tamirian.song.repository;
+
+import com.tamirian.song.dto.SongStatDto;
+import com.tamirian.song.model.SongMetadata;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Song count and duration totals per artist, album and year in {@code song_stats},
+ * kept current by the transactions that insert and delete songs. Changes are summed
+ * per group first, so a batch touches each group row once, and applied in key order,
+ * so two transactions touching the same groups lock them in the same order.
+ */
+@Repository
+public class SongStatsRepository {
+
+    public static final String ARTIST = "artist";
+    public static final String ALBUM = "album";
+    public static final String YEAR = "year";
+
+    private static final String UPSERT = """
+            INSERT INTO song_stats (dimension, value, songs, timed_songs, total_seconds)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (dimension, value) DO UPDATE SET
+                songs = song_stats.songs + EXCLUDED.songs,
+                timed_songs = song_stats.timed_songs + EXCLUDED.timed_songs,
+                total_seconds = song_stats.total_seconds + EXCLUDED.total_seconds""";
+
+    private static final String DELETE_EMPTY = "DELETE FROM song_stats WHERE dimension = ? AND value = ? AND songs <= 0";
+
+    private static final String TOP = """
+            SELECT value, songs, timed_songs, total_seconds FROM song_stats
+            WHERE dimension = ? ORDER BY songs DESC, value LIMIT ?""";
+
+    private record Group(String dimension, String value) implements Comparable<Group> {
+        @Override
+        public int compareTo(Group other) {
+            int byDimension = dimension.compareTo(other.dimension);
+            return byDimension != 0 ? byDimension : value.compareTo(other.value);
+        }
+    }
+
+    private static final class Delta {
+        long songs;
+        long timedSongs;
+        long totalSeconds;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SongStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void apply(List<SongMetadata> added, List<SongMetadata> removed) {
+        Map<Group, Delta> deltas = new TreeMap<>();
+        accumulate(deltas, added, 1);
+        accumulate(deltas, removed, -1);
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> upserts = new ArrayList<>(deltas.size());
+        List<Object[]> shrunk = new ArrayList<>();
+        deltas.forEach((group, delta) -> {
+            upserts.add(new Object[]{group.dimension(), group.value(), delta.songs, delta.timedSongs, delta.totalSeconds});
+            if (delta.songs < 0) {
+                shrunk.add(new Object[]{group.dimension(), group.value()});
+            }
+        });
+        jdbcTemplate.batchUpdate(UPSERT, upserts);
+        if (!shrunk.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_EMPTY, shrunk);
+        }
+    }
+
+    public List<SongStatDto> top(String dimension, int limit) {
+        return jdbcTemplate.query(TOP, (rs, row) -> {
+            long timedSongs = rs.getLong(3);
+            long totalSeconds = rs.getLong(4);
+            return new SongStatDto(
+                    rs.getString(1),
+                    rs.getLong(2),
+                    totalSeconds,
+                    timedSongs == 0 ? null : Math.round(totalSeconds * 10.0 / timedSongs) / 10.0);
+        }, dimension, limit);
+    }
+
+    private static void accumulate(Map<Group, Delta> deltas, List<SongMetadata> songs, int sign) {
+        for (SongMetadata song : songs) {
+            add(deltas, ARTIST, song.getArtist(), song, sign);
+            add(deltas, ALBUM, song.getAlbum(), song, sign);
+            add(deltas, YEAR, song.getYear(), song, sign);
+        }
+    }
+
+    private static void add(Map<Group, Delta> deltas, String dimension, Object value, SongMetadata song, int sign) {
+        if (value == null) return;
+        Delta delta = deltas.computeIfAbsent(new Group(dimension, value.toString()), group -> new Delta());
+        delta.songs += sign;
+        if (song.getDurationSeconds() != null) {
+            delta.timedSongs += sign;
+            delta.totalSeconds += (long) sign * song.getDurationSeconds();
+        }
+    }
+}
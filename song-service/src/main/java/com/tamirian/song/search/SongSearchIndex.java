@@ -0,0 +1,422 @@
+package com.tamirian.song.search;
+
+import com.tamirian.song.dto.SongMetadataDto;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over song name, artist and album. Terms live in a sorted dictionary
+ * so a query token expands to every term it prefixes, mirrored by a hash map for the
+ * exact lookups writes need. Each term points at a sorted {@code long[]} of postings
+ * encoded as {@code id << 2 | field}.
+ * <p>
+ * All query tokens must match. The most selective token yields at most
+ * {@code maxCandidates} songs and the remaining tokens filter those, so the work per
+ * query is bounded however short the prefixes are. A song scores the best field
+ * weight per token (name 3, artist 2, album 1), doubled when the token matches a
+ * whole term, summed over tokens.
+ */
+public class SongSearchIndex {
+
+    private static final int NAME = 0;
+    private static final int ARTIST = 1;
+    private static final int ALBUM = 2;
+    private static final int[] WEIGHTS = {3, 2, 1};
+
+    // match keys are id << 4 | score, so IDs must leave the top bits free
+    private static final long MAX_ID = (1L << 59) - 1;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final int maxExpansions;
+    private final int maxCandidates;
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, SongMetadataDto> songs = new HashMap<>();
+    private final Map<String, String> values = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SongSearchIndex(int maxExpansions, int maxCandidates) {
+        this.maxExpansions = maxExpansions;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public void add(SongMetadataDto song) {
+        long id = Long.parseLong(song.id());
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("ID " + id + " is out of the indexable range");
+        }
+        lock.writeLock().lock();
+        try {
+            SongMetadataDto previous = songs.put(id, canonical(song));
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, NAME, song.name());
+            index(id, ARTIST, song.artist());
+            index(id, ALBUM, song.album());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            SongMetadataDto previous = songs.remove(id);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return songs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SongMetadataDto> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Expansion> expansions = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Expansion expansion = expand(token);
+                if (expansion.postings == 0) {
+                    return List.of();
+                }
+                expansions.add(expansion);
+            }
+            // the most selective token picks the candidates, the others only filter them
+            expansions.sort(Comparator.comparingLong(expansion -> expansion.postings));
+
+            Matches matches = match(expansions.get(0));
+            for (int i = 1; i < expansions.size() && matches.size > 0; i++) {
+                Expansion expansion = expansions.get(i);
+                matches = (long) matches.size * expansion.terms.size() <= maxCandidates
+                        ? probe(matches, expansion)
+                        : verify(matches, expansion);
+            }
+            return top(matches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = isAscii(text) ? text : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>(4);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private void index(long id, int field, String text) {
+        long posting = id << 2 | field;
+        for (String term : tokenize(text)) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                postingsByTerm.put(term, postings);
+                terms.put(term, postings);
+            }
+            postings.add(posting);
+        }
+    }
+
+    private void unindex(long id, SongMetadataDto song) {
+        unindex(id, NAME, song.name());
+        unindex(id, ARTIST, song.artist());
+        unindex(id, ALBUM, song.album());
+    }
+
+    private void unindex(long id, int field, String text) {
+        long posting = id << 2 | field;
+        for (String term : tokenize(text)) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null && postings.remove(posting) && postings.size == 0) {
+                postingsByTerm.remove(term);
+                terms.remove(term);
+            }
+        }
+    }
+
+    private SongMetadataDto canonical(SongMetadataDto song) {
+        return new SongMetadataDto(
+                song.id(),
+                song.name(),
+                intern(song.artist()),
+                intern(song.album()),
+                intern(song.duration()),
+                intern(song.year()));
+    }
+
+    private String intern(String value) {
+        return value == null ? null : values.computeIfAbsent(value, v -> v);
+    }
+
+    private Expansion expand(String token) {
+        List<Map.Entry<String, Postings>> expanded = new ArrayList<>();
+        long postings = 0;
+        for (Map.Entry<String, Postings> entry : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (expanded.size() == maxExpansions) break;
+            expanded.add(entry);
+            postings += entry.getValue().size;
+        }
+        return new Expansion(token, expanded, postings);
+    }
+
+    /**
+     * Collects the songs matching one token, bounded by the candidate budget. The
+     * closest term sorts first and is always used, cut to the budget if it must be;
+     * further completions are added only while they fit, so a one-letter prefix
+     * doesn't have to rank a large part of the catalogue.
+     */
+    private Matches match(Expansion expansion) {
+        int used = 0;
+        int total = 0;
+        for (Map.Entry<String, Postings> entry : expansion.terms) {
+            int size = entry.getValue().size;
+            if (used > 0 && total + size > maxCandidates) break;
+            used++;
+            total += Math.min(size, maxCandidates);
+        }
+
+        long[] keys = new long[total];
+        int n = 0;
+        for (int t = 0; t < used; t++) {
+            Map.Entry<String, Postings> entry = expansion.terms.get(t);
+            int boost = boost(expansion, entry);
+            Postings postings = entry.getValue();
+            for (int i = 0; i < postings.size && n < total; i++) {
+                long posting = postings.values[i];
+                keys[n++] = (posting >>> 2) << 4 | (long) WEIGHTS[(int) (posting & 3)] * boost;
+            }
+        }
+        // a single posting list is already in ID order
+        if (used > 1) {
+            Arrays.sort(keys);
+        }
+
+        Matches matches = new Matches(total);
+        for (int i = 0; i < total; ) {
+            long id = keys[i] >>> 4;
+            int best = 0;
+            for (; i < total && keys[i] >>> 4 == id; i++) {
+                best = Math.max(best, (int) (keys[i] & 15));
+            }
+            matches.append(id, best);
+        }
+        return matches;
+    }
+
+    private Matches probe(Matches candidates, Expansion expansion) {
+        Matches result = new Matches(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            long id = candidates.ids[i];
+            int best = 0;
+            for (Map.Entry<String, Postings> entry : expansion.terms) {
+                int field = entry.getValue().bestField(id);
+                if (field >= 0) {
+                    best = Math.max(best, WEIGHTS[field] * boost(expansion, entry));
+                }
+            }
+            if (best > 0) {
+                result.append(id, candidates.scores[i] + best);
+            }
+        }
+        return result;
+    }
+
+    /** Filters candidates by their own fields, for prefixes too broad to probe term by term. */
+    private Matches verify(Matches candidates, Expansion expansion) {
+        Matches result = new Matches(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            SongMetadataDto song = songs.get(candidates.ids[i]);
+            int best = Math.max(score(song.name(), NAME, expansion.token),
+                    Math.max(score(song.artist(), ARTIST, expansion.token), score(song.album(), ALBUM, expansion.token)));
+            if (best > 0) {
+                result.append(candidates.ids[i], candidates.scores[i] + best);
+            }
+        }
+        return result;
+    }
+
+    private static int score(String text, int field, String token) {
+        if (text == null) {
+            return 0;
+        }
+        int best = 0;
+        if (!isAscii(text)) {
+            for (String term : tokenize(text)) {
+                if (term.startsWith(token)) {
+                    best = Math.max(best, WEIGHTS[field] * (term.length() == token.length() ? 2 : 1));
+                }
+            }
+            return best;
+        }
+        // same terms as tokenize() would produce, compared in place
+        for (int i = 0, n = text.length(); i < n; ) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < n && Character.isLetterOrDigit(text.charAt(end))) {
+                end++;
+            }
+            if (end - i >= token.length() && text.regionMatches(true, i, token, 0, token.length())) {
+                best = Math.max(best, WEIGHTS[field] * (end - i == token.length() ? 2 : 1));
+            }
+            i = end;
+        }
+        return best;
+    }
+
+    private static int boost(Expansion expansion, Map.Entry<String, Postings> entry) {
+        return entry.getKey().length() == expansion.token.length() ? 2 : 1;
+    }
+
+    private List<SongMetadataDto> top(Matches matches, int limit) {
+        int k = Math.min(limit, matches.size);
+        long[] ids = new long[k];
+        int[] scores = new int[k];
+        int filled = 0;
+        for (int i = 0; i < matches.size; i++) {
+            int score = matches.scores[i];
+            if (filled == k && score <= scores[k - 1]) continue;
+            // ids arrive ascending, so among equal scores the earlier song stays ahead
+            int at = filled == k ? k - 1 : filled++;
+            while (at > 0 && scores[at - 1] < score) {
+                ids[at] = ids[at - 1];
+                scores[at] = scores[at - 1];
+                at--;
+            }
+            ids[at] = matches.ids[i];
+            scores[at] = score;
+        }
+
+        List<SongMetadataDto> result = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            result.add(songs.get(ids[i]));
+        }
+        return result;
+    }
+
+    private static final class Postings {
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            if (size == 0 || values[size - 1] < value) {
+                ensureCapacity();
+                values[size++] = value;
+                return;
+            }
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) return;
+            at = -at - 1;
+            ensureCapacity();
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = value;
+            size++;
+        }
+
+        /** Highest-weighted field the song appears in under this term, or -1. */
+        int bestField(long id) {
+            int at = Arrays.binarySearch(values, 0, size, id << 2);
+            if (at < 0) {
+                at = -at - 1;
+            }
+            return at < size && values[at] >>> 2 == id ? (int) (values[at] & 3) : -1;
+        }
+
+        boolean remove(long value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at < 0) return false;
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            if (size > 0 && size < values.length / 4) {
+                values = Arrays.copyOf(values, values.length / 2);
+            }
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+        }
+    }
+
+    private record Expansion(String token, List<Map.Entry<String, Postings>> terms, long postings) {
+    }
+
+    private static final class Matches {
+        private final long[] ids;
+        private final int[] scores;
+        private int size;
+
+        Matches(int capacity) {
+            this.ids = new long[capacity];
+            this.scores = new int[capacity];
+        }
+
+        void append(long id, int score) {
+            ids[size] = id;
+            scores[size] = score;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tamirian.song.search;
+
+import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.mapper.SongMetadataMapper;
+import com.tamirian.song.model.SongMetadata;
+import com.tamirian.song.repository.SongMetadataRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static com.tamirian.song.repository.SongMetadataSpecifications.idAfter;
+
+/**
+ * Keeps {@link SongSearchIndex} in step with song_metadata. The index is loaded in
+ * ID order once the application is ready and afterwards follows committed writes.
+ * Deletes that land while the initial load is running are remembered so the loader
+ * doesn't re-add a row it read just before the delete committed.
+ */
+@Slf4j
+@Component
+public class SongSearchService {
+
+    private final SongMetadataRepository songMetadataRepository;
+    private final SongMetadataMapper songMetadataMapper;
+    private final SongSearchIndex index;
+    private final Timer searchTimer;
+    private final int loadBatchSize;
+
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public SongSearchService(SongMetadataRepository songMetadataRepository,
+                             SongMetadataMapper songMetadataMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${song.search.max-expansions:256}") int maxExpansions,
+                             @Value("${song.search.max-candidates:4096}") int maxCandidates,
+                             @Value("${song.search.load-batch-size:10000}") int loadBatchSize) {
+        this.songMetadataRepository = songMetadataRepository;
+        this.songMetadataMapper = songMetadataMapper;
+        this.index = new SongSearchIndex(maxExpansions, maxCandidates);
+        this.loadBatchSize = loadBatchSize;
+        this.searchTimer = Timer.builder("song.search")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        Gauge.builder("song.search.index.songs", index, SongSearchIndex::size).register(meterRegistry);
+        Gauge.builder("song.search.index.terms", index, SongSearchIndex::termCount).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        long start = System.nanoTime();
+        try {
+            Long after = null;
+            while (true) {
+                List<SongMetadata> page = songMetadataRepository.findBy(idAfter(after),
+                        query -> query.sortBy(Sort.by("id")).limit(loadBatchSize).all());
+                if (page.isEmpty()) break;
+                for (SongMetadata song : page) {
+                    if (!removedWhileLoading.contains(song.getId())) {
+                        index.add(songMetadataMapper.toDto(song));
+                    }
+                }
+                after = page.get(page.size() - 1).getId();
+            }
+        } finally {
+            loading = false;
+            removedWhileLoading.clear();
+        }
+        log.info("Indexed {} songs ({} terms) in {} ms", index.size(), index.termCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<SongMetadataDto> search(String query, int limit) {
+        return searchTimer.record(() -> index.search(query, limit));
+    }
+
+    public void index(Collection<SongMetadata> songs) {
+        if (songs.isEmpty()) return;
+        afterCommit(() -> songs.forEach(song -> index.add(songMetadataMapper.toDto(song))));
+    }
+
+    public void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        afterCommit(() -> ids.forEach(id -> {
+            if (loading) {
+                removedWhileLoading.add(id);
+            }
+            index.remove(id);
+        }));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
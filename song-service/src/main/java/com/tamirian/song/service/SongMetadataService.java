@@ -1,57 +1,226 @@
 package com.tamirian.song.service;
 
+import com.tamirian.song.cache.SongMetadataCache;
+import com.tamirian.song.dto.SongBatchItemResult;
 import com.tamirian.song.dto.SongMetadataDto;
+import com.tamirian.song.dto.SongPageDto;
+import com.tamirian.song.dto.SongStatsDto;
 import com.tamirian.song.exception.BadRequestException;
 import com.tamirian.song.exception.SongMetadataConflictException;
 import com.tamirian.song.exception.SongMetadataNotFoundException;
 import com.tamirian.song.mapper.SongMetadataMapper;
 import com.tamirian.song.model.SongMetadata;
+import com.tamirian.song.observability.PhaseMetrics;
 import com.tamirian.song.repository.SongMetadataRepository;
+import com.tamirian.song.repository.SongStatsRepository;
+import com.tamirian.song.search.SongSearchService;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import static com.tamirian.song.repository.SongMetadataSpecifications.*;
 import static java.lang.Long.valueOf;
 
 @Service
 public class SongMetadataService {
 
     public SongMetadataRepository songMetadataRepository;
+    public SongStatsRepository songStatsRepository;
     public SongMetadataMapper songMetadataMapper;
+    public SongMetadataCache songMetadataCache;
+    public SongSearchService songSearchService;
+    public Validator validator;
+    public PhaseMetrics phaseMetrics;
+    public int maxBatchSize;
+    public int maxPageSize;
+    public int maxSearchResults;
+    public int maxDeleteIds;
+    public int deleteChunkSize;
 
     @Autowired
-    public SongMetadataService(SongMetadataRepository songMetadataRepository, SongMetadataMapper songMetadataMapper){
+    public SongMetadataService(SongMetadataRepository songMetadataRepository, SongStatsRepository songStatsRepository,
+                               SongMetadataMapper songMetadataMapper,
+                               SongMetadataCache songMetadataCache, SongSearchService songSearchService,
+                               Validator validator, PhaseMetrics phaseMetrics,
+                               @Value("${song.batch.max-size:1000}") int maxBatchSize,
+                               @Value("${song.page.max-size:500}") int maxPageSize,
+                               @Value("${song.search.max-results:50}") int maxSearchResults,
+                               @Value("${song.delete.max-ids:100000}") int maxDeleteIds,
+                               @Value("${song.delete.chunk-size:1000}") int deleteChunkSize){
         this.songMetadataRepository = songMetadataRepository;
+        this.songStatsRepository = songStatsRepository;
         this.songMetadataMapper = songMetadataMapper;
+        this.songMetadataCache = songMetadataCache;
+        this.songSearchService = songSearchService;
+        this.validator = validator;
+        this.phaseMetrics = phaseMetrics;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPageSize = maxPageSize;
+        this.maxSearchResults = maxSearchResults;
+        this.maxDeleteIds = maxDeleteIds;
+        this.deleteChunkSize = deleteChunkSize;
     }
 
+    @Transactional
     public Map<String, Long> createSongMetadata(SongMetadataDto dto){
+        long start = System.nanoTime();
         Long id = Long.valueOf(dto.id());
-        if (songMetadataRepository.existsById(id)){
+        SongMetadata song = songMetadataMapper.toEntity(dto);
+        boolean[] inserted = songMetadataRepository.insertIfAbsent(List.of(song));
+        start = phaseMetrics.record("song.create", "insert", start);
+        if (!inserted[0]){
             throw new SongMetadataConflictException(
                     "Metadata for resource ID " + id + " already exists."
             );
         }
-
-        songMetadataRepository.save(songMetadataMapper.toEntity(dto));
+        songStatsRepository.apply(List.of(song), List.of());
+        start = phaseMetrics.record("song.create", "stats", start);
+        songMetadataCache.evict(id);
+        songSearchService.index(List.of(song));
+        phaseMetrics.record("song.create", "index", start);
 
         Map<String, Long> map = new HashMap<>();
         map.put("id", id);
         return map;
     }
 
+    @Transactional
+    public List<SongBatchItemResult> createSongMetadataBatch(List<SongMetadataDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one item");
+        }
+        if (dtos.size() > maxBatchSize) {
+            throw new BadRequestException(
+                    "Batch is too large: received " + dtos.size() + " items, maximum allowed is " + maxBatchSize
+            );
+        }
+
+        long start = System.nanoTime();
+        SongBatchItemResult[] results = new SongBatchItemResult[dtos.size()];
+        List<SongMetadata> valid = new ArrayList<>(dtos.size());
+        List<Integer> positions = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            SongMetadataDto dto = dtos.get(i);
+            if (dto == null) {
+                results[i] = new SongBatchItemResult(null, SongBatchItemResult.Status.INVALID,
+                        Map.of("item", "must not be null"));
+                continue;
+            }
+            Set<ConstraintViolation<SongMetadataDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new HashMap<>();
+                for (ConstraintViolation<SongMetadataDto> violation : violations) {
+                    errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+                }
+                results[i] = new SongBatchItemResult(dto.id(), SongBatchItemResult.Status.INVALID, errors);
+                continue;
+            }
+            valid.add(songMetadataMapper.toEntity(dto));
+            positions.add(i);
+        }
+        start = phaseMetrics.record("song.create.batch", "validate", start);
+
+        if (!valid.isEmpty()) {
+            boolean[] inserted = songMetadataRepository.insertIfAbsent(valid);
+            start = phaseMetrics.record("song.create.batch", "insert", start);
+            List<SongMetadata> created = new ArrayList<>(inserted.length);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    created.add(valid.get(i));
+                }
+                results[positions.get(i)] = SongBatchItemResult.of(
+                        valid.get(i).getId().toString(),
+                        inserted[i] ? SongBatchItemResult.Status.CREATED : SongBatchItemResult.Status.CONFLICT
+                );
+            }
+            songStatsRepository.apply(created, List.of());
+            start = phaseMetrics.record("song.create.batch", "stats", start);
+            songMetadataCache.evictAll(created.stream().map(SongMetadata::getId).toList());
+            songSearchService.index(created);
+            phaseMetrics.record("song.create.batch", "index", start);
+        }
+
+        return Arrays.asList(results);
+    }
+
     public SongMetadataDto getSongMetadataById(Long resourceId){
-        return songMetadataMapper.toDto(
-                songMetadataRepository.findById(resourceId)
-                        .orElseThrow(() ->
-                                new SongMetadataNotFoundException(
-                                        "Song metadata with ID " + resourceId + " does not exist."
-                                )
+        long start = System.nanoTime();
+        Optional<SongMetadataDto> song = songMetadataCache.get(resourceId, this::loadSongMetadata);
+        phaseMetrics.record("song.get", "lookup", start);
+        return song.orElseThrow(() ->
+                        new SongMetadataNotFoundException(
+                                "Song metadata with ID " + resourceId + " does not exist."
                         )
+                );
+    }
+
+    public List<SongMetadataDto> searchSongMetadata(String query, int limit){
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query must not be empty");
+        }
+        if (limit < 1 || limit > maxSearchResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxSearchResults);
+        }
+        return songSearchService.search(query, limit);
+    }
+
+    /**
+     * Keyset pagination over the primary key: each page seeks past the last ID of the
+     * previous one, so with the (filter, id) indexes the cost doesn't grow with depth.
+     */
+    public SongPageDto listSongMetadata(String artist, String album, String year, String cursor, int limit){
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+
+        Specification<SongMetadata> spec = Specification.allOf(
+                artistEquals(artist),
+                albumEquals(album),
+                yearEquals(parseYear(year)),
+                idAfter(decodeCursor(cursor))
         );
+        List<SongMetadata> rows = songMetadataRepository.findBy(spec,
+                query -> query.sortBy(Sort.by("id")).limit(limit + 1).all());
+
+        boolean hasMore = rows.size() > limit;
+        List<SongMetadata> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+        return new SongPageDto(page.stream().map(songMetadataMapper::toDto).toList(), nextCursor);
+    }
+
+    /**
+     * Song count and total/average duration per artist, album and year, the largest
+     * groups first. Read from the aggregates maintained on create and delete.
+     */
+    public SongStatsDto getStats(int limit){
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        return new SongStatsDto(
+                songStatsRepository.top(SongStatsRepository.ARTIST, limit),
+                songStatsRepository.top(SongStatsRepository.ALBUM, limit),
+                songStatsRepository.top(SongStatsRepository.YEAR, limit)
+        );
+    }
+
+    private Optional<SongMetadataDto> loadSongMetadata(Long resourceId){
+        long start = System.nanoTime();
+        Optional<SongMetadataDto> song = songMetadataRepository.findById(resourceId).map(songMetadataMapper::toDto);
+        phaseMetrics.record("song.get", "load", start);
+        return song;
     }
 
     @Transactional
@@ -72,21 +241,71 @@ public class SongMetadataService {
                 .distinct()
                 .toList();
 
-        if (ids.isEmpty()) {
-            return List.of();
+        return deleteSongsMetadata(ids);
+    }
+
+    /**
+     * Bulk variant without the CSV length cap. Rows are removed in chunks of
+     * {@code DELETE ... WHERE id = ANY(?) RETURNING id}, so only IDs that existed are
+     * reported and no entity is loaded.
+     */
+    @Transactional
+    public List<Long> deleteSongsMetadata(List<Long> ids) {
+        if (ids == null) {
+            throw new BadRequestException("IDs must not be empty");
+        }
+        if (ids.size() > maxDeleteIds) {
+            throw new BadRequestException(
+                    "Too many IDs: received " + ids.size() + ", maximum allowed is " + maxDeleteIds
+            );
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        for (Long id : distinct) {
+            if (id == null || id <= 0) {
+                throw new BadRequestException("Invalid ID: '" + id + "'. Only positive integers are allowed");
+            }
         }
 
-        List<Long> existingIds = songMetadataRepository.findAllById(ids).stream()
-                .map(SongMetadata::getId)
-                .toList();
+        long start = System.nanoTime();
+        List<SongMetadata> rows = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += deleteChunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + deleteChunkSize, distinct.size()));
+            rows.addAll(songMetadataRepository.deleteByIdsReturning(chunk));
+        }
+        start = phaseMetrics.record("song.delete", "rows", start);
+        songStatsRepository.apply(List.of(), rows);
+        start = phaseMetrics.record("song.delete", "stats", start);
+        List<Long> deleted = rows.stream().map(SongMetadata::getId).toList();
+        songMetadataCache.evictAll(deleted);
+        songSearchService.remove(deleted);
+        phaseMetrics.record("song.delete", "index", start);
+
+        return deleted;
+    }
 
-        if (existingIds.isEmpty()) {
-            return List.of();
+    private Integer parseYear(String year) {
+        if (year == null || year.isBlank()) {
+            return null;
         }
+        if (!year.matches("^(19|20)\\d{2}$")) {
+            throw new BadRequestException("Year must be between 1900 and 2099");
+        }
+        return Integer.valueOf(year);
+    }
 
-        songMetadataRepository.deleteAllById(existingIds);
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
 
-        return existingIds;
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: '" + cursor + "'");
+        }
     }
 
     private Long parseIdStrict(String s) {